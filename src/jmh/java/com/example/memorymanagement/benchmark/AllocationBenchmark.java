@@ -0,0 +1,91 @@
+package com.example.memorymanagement.benchmark;
+
+import com.example.memorymanagement.service.allocation.AllocationEngine;
+import com.example.memorymanagement.service.allocation.AllocationTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// One allocate/free pair per operation against a pool that the same algorithm pre-filled and then
+// punched with holes, so each allocator searches its own steady, fragmented free space.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllocationBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    public int poolBlocks;
+
+    @Param({"first", "best", "worst", "buddy", "slab"})
+    public String algorithm;
+
+    // small: 1-4 blocks, uniform: 1-64 blocks, bimodal: mostly 1-4 with one in ten of 32-256
+    @Param({"small", "uniform", "bimodal"})
+    public String sizes;
+
+    // Share of the pre-filled allocations freed again, scattering holes across the pool.
+    @Param({"0.0", "0.5"})
+    public double fragmentation;
+
+    private static final int SIZE_COUNT = 4096;
+
+    private AllocationEngine engine;
+    private int[] requestSizes;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Random random = new Random(42);
+        engine = new AllocationEngine(poolBlocks, 1);
+        requestSizes = new int[SIZE_COUNT];
+        for (int i = 0; i < SIZE_COUNT; i++) {
+            requestSizes[i] = size(random);
+        }
+
+        // Fill half of the pool, then free a share of those allocations at random.
+        List<Integer> starts = new ArrayList<>();
+        int filled = 0;
+        while (filled < poolBlocks / 2) {
+            int size = size(random);
+            int start = engine.allocate(size, algorithm, AllocationTable.NO_OWNER);
+            if (start == -1) {
+                break;
+            }
+            starts.add(start);
+            filled += size;
+        }
+        for (int start : starts) {
+            if (random.nextDouble() < fragmentation) {
+                engine.free(start);
+            }
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public int allocateAndFree() {
+        int size = requestSizes[next++ & (SIZE_COUNT - 1)];
+        int start = engine.allocate(size, algorithm, AllocationTable.NO_OWNER);
+        if (start != -1) {
+            engine.free(start);
+        }
+        return start;
+    }
+
+    private int size(Random random) {
+        switch (sizes) {
+            case "small":
+                return 1 + random.nextInt(4);
+            case "uniform":
+                return 1 + random.nextInt(64);
+            default:
+                return random.nextInt(10) == 0 ? 32 + random.nextInt(225) : 1 + random.nextInt(4);
+        }
+    }
+}
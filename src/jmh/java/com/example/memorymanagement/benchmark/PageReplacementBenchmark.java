@@ -0,0 +1,52 @@
+package com.example.memorymanagement.benchmark;
+
+import com.example.memorymanagement.service.paging.PageReplacementPolicies;
+import com.example.memorymanagement.service.paging.PageReplacementPolicy;
+import com.example.memorymanagement.service.paging.ReferenceTrace;
+import com.example.memorymanagement.service.workload.Locality;
+import com.example.memorymanagement.service.workload.WorkloadGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Replays a whole reference trace per operation; divide by traceLength for the cost per reference.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageReplacementBenchmark {
+
+    @Param({"fifo", "lru", "optimal", "clock", "lfu", "arc", "2q"})
+    public String algorithm;
+
+    @Param({"10000", "1000000"})
+    public int traceLength;
+
+    @Param({"64", "1024"})
+    public int frames;
+
+    @Param({"uniform", "zipf", "scan", "phase-shift"})
+    public String locality;
+
+    private ReferenceTrace trace;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        trace = new ReferenceTrace(WorkloadGenerator.pageTrace(Locality.from(locality), traceLength, frames * 4, 42));
+    }
+
+    @Benchmark
+    public int replay() {
+        PageReplacementPolicy policy = PageReplacementPolicies.create(algorithm, frames,
+                PageReplacementPolicies.requiresFullTrace(algorithm) ? trace : null);
+        int faults = 0;
+        for (int i = 0; i < trace.length(); i++) {
+            if (!policy.access(trace.get(i))) {
+                faults++;
+            }
+        }
+        return faults;
+    }
+}
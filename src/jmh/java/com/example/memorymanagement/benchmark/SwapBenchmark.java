@@ -0,0 +1,81 @@
+package com.example.memorymanagement.benchmark;
+
+import com.example.memorymanagement.service.MemoryMetrics;
+import com.example.memorymanagement.service.StateEvents;
+import com.example.memorymanagement.service.SwappingService;
+import com.example.memorymanagement.service.swap.RamArena;
+import com.example.memorymanagement.service.swap.SwapFile;
+import com.example.memorymanagement.service.swap.SwapManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// A swap-out followed by a swap-in of the same process: directly on the swap manager, and as one batch
+// through the service's asynchronous I/O queue.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SwapBenchmark {
+
+    private static final int PAGE_SIZE = 4096;
+
+    @Param({"1", "16", "256"})
+    public int pages;
+
+    @Param({"1", "8"})
+    public int processes;
+
+    private Path swapPath;
+    private SwapManager manager;
+    private SwappingService service;
+    private List<String> names;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        swapPath = Files.createTempFile("swap-benchmark", ".bin");
+        int slots = pages * processes * 2;
+        manager = new SwapManager(new RamArena(pages * processes, PAGE_SIZE), new SwapFile(swapPath, slots, PAGE_SIZE),
+                false, 4);
+        names = new ArrayList<>();
+        for (int i = 0; i < processes; i++) {
+            names.add("Bench-" + i);
+            manager.load(names.get(i), pages);
+        }
+
+        MemoryMetrics metrics = new MemoryMetrics(new SimpleMeterRegistry());
+        service = new SwappingService(new StateEvents(), metrics, "", slots + 64, pages * processes + 64,
+                PAGE_SIZE, false, 4, 1024, 32);
+        service.init();
+        for (String name : names) {
+            service.addProcessToRam(name, pages);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        service.close();
+        manager.close();
+        Files.deleteIfExists(swapPath);
+    }
+
+    @Benchmark
+    public int swapManagerRoundTrip() {
+        return manager.swapOut(names).size() + manager.swapIn(names).size();
+    }
+
+    @Benchmark
+    public Object swappingServiceRoundTrip() {
+        service.swapBatch(names, Collections.<String>emptyList()).join();
+        return service.swapBatch(Collections.<String>emptyList(), names).join();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.memorymanagement.controller;
+
+import com.example.memorymanagement.service.GcBenchmarkService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/gc/benchmark")
+public class GcBenchmarkController {
+
+    private final GcBenchmarkService gcBenchmarkService;
+
+    public GcBenchmarkController(GcBenchmarkService gcBenchmarkService) {
+        this.gcBenchmarkService = gcBenchmarkService;
+    }
+
+    @PostMapping("/marking")
+    public Map<String, Object> benchmarkMarking(@RequestParam(defaultValue = "1000000") int objects,
+                                                @RequestParam(defaultValue = "4") int fields,
+                                                @RequestParam(defaultValue = "1,2,4,8") List<Integer> threads,
+                                                @RequestParam(defaultValue = "false") boolean concurrent,
+                                                @RequestParam(defaultValue = "3") int repetitions,
+                                                @RequestParam(defaultValue = "42") long seed) {
+        return gcBenchmarkService.benchmarkMarking(objects, fields, threads, concurrent, repetitions, seed);
+    }
+}
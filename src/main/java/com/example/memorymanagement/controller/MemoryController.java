@@ -1,9 +1,13 @@
 package com.example.memorymanagement.controller;
 
+import com.example.memorymanagement.model.BatchOperation;
 import com.example.memorymanagement.model.MemoryBlock;
 import com.example.memorymanagement.model.Process;
 import com.example.memorymanagement.service.MemoryService;
+import com.example.memorymanagement.service.allocation.MemoryMapEncoder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -26,16 +30,33 @@ public class MemoryController {
     }
 
     // REST APIs
+    // JSON unless the client asks for the binary memory map (see MemoryMapEncoder for the layout).
     @ResponseBody
     @GetMapping("/api/memory-blocks")
-    public List<MemoryBlock> getMemoryBlocks() {
-        return memoryService.getMemoryBlocks();
+    public ResponseEntity<?> getMemoryBlocks(@RequestHeader(value = "Accept", defaultValue = "application/json") String accept) {
+        String binaryType = accept.contains(MemoryMapEncoder.MEDIA_TYPE) ? MemoryMapEncoder.MEDIA_TYPE
+                : accept.contains("application/octet-stream") ? "application/octet-stream" : null;
+        if (binaryType != null) {
+            return ResponseEntity.ok().contentType(MediaType.parseMediaType(binaryType)).body(memoryService.getMemoryMap());
+        }
+        List<MemoryBlock> blocks = memoryService.getMemoryBlocks();
+        return ResponseEntity.ok(blocks);
+    }
+
+    @ResponseBody
+    @GetMapping("/api/memory-blocks/changes")
+    public Map<String, Object> getMemoryBlockChanges(@RequestParam(defaultValue = "0") long since) {
+        return memoryService.getChangesSince(since);
     }
 
     @ResponseBody
     @PostMapping("/api/allocate")
-    public Map<String, Object> allocateMemory(@RequestParam int size, @RequestParam String algorithm) {
-        return memoryService.allocateMemory(size, algorithm);
+    public Map<String, Object> allocateMemory(@RequestParam int size, @RequestParam String algorithm,
+                                              @RequestParam(required = false) Integer processId) {
+        if (processId == null) {
+            return memoryService.allocateMemory(size, algorithm);
+        }
+        return memoryService.allocateMemory(size, algorithm, processId);
     }
 
     @ResponseBody
@@ -44,12 +65,42 @@ public class MemoryController {
         return memoryService.deallocateMemory(blockId);
     }
 
+    @ResponseBody
+    @PostMapping("/api/deallocate-process")
+    public Map<String, Object> deallocateProcess(@RequestParam int processId) {
+        return memoryService.deallocateProcess(processId);
+    }
+
+    // Allocations and frees in one request, in order unless sortSizes places each run of allocations
+    // largest first; leave it off when replaying a trace whose failures must match the original order.
+    @ResponseBody
+    @PostMapping("/api/batch")
+    public Map<String, Object> applyBatch(@RequestBody List<BatchOperation> operations,
+                                          @RequestParam(defaultValue = "false") boolean sortSizes) {
+        return memoryService.applyBatch(operations, sortSizes);
+    }
+
     @ResponseBody
     @PostMapping("/api/reset")
-    public Map<String, Object> resetMemory() {
+    public Map<String, Object> resetMemory(@RequestParam(required = false) Integer blocks) {
+        if (blocks != null) {
+            return memoryService.resetMemory(blocks);
+        }
         return memoryService.resetMemory();
     }
 
+    @ResponseBody
+    @PostMapping("/api/compact")
+    public Map<String, Object> compact() {
+        return memoryService.compact();
+    }
+
+    @ResponseBody
+    @PostMapping("/api/compact/step")
+    public Map<String, Object> compactStep() {
+        return memoryService.compactStep();
+    }
+
     @ResponseBody
     @GetMapping("/api/processes")
     public List<Process> getProcesses() {
@@ -58,8 +109,9 @@ public class MemoryController {
 
     @ResponseBody
     @PostMapping("/api/create-process")
-    public Map<String, Object> createProcess(@RequestParam String name, @RequestParam int size) {
-        return memoryService.createProcess(name, size);
+    public Map<String, Object> createProcess(@RequestParam String name, @RequestParam int size,
+                                             @RequestParam(defaultValue = "0") int priority) {
+        return memoryService.createProcess(name, size, priority);
     }
 
     @ResponseBody
@@ -76,7 +128,32 @@ public class MemoryController {
 
     @ResponseBody
     @PostMapping("/api/garbage-collect")
-    public Map<String, Object> runGarbageCollection() {
-        return memoryService.runGarbageCollection();
+    public Map<String, Object> runGarbageCollection(@RequestParam(defaultValue = "full") String mode) {
+        return memoryService.runGarbageCollection(mode);
+    }
+
+    @ResponseBody
+    @PostMapping("/api/gc/mutate")
+    public Map<String, Object> mutateHeap(@RequestParam(defaultValue = "50") int allocations,
+                                          @RequestParam(required = false) Long seed) {
+        return memoryService.mutateHeap(allocations, seed != null ? seed : System.nanoTime());
+    }
+
+    @ResponseBody
+    @PostMapping("/api/gc/root")
+    public Map<String, Object> setRoot(@RequestParam int blockId, @RequestParam(defaultValue = "true") boolean root) {
+        return memoryService.setRoot(blockId, root);
+    }
+
+    @ResponseBody
+    @PostMapping("/api/gc/reference")
+    public Map<String, Object> addReference(@RequestParam int from, @RequestParam int to) {
+        return memoryService.updateReference(from, to, true);
+    }
+
+    @ResponseBody
+    @DeleteMapping("/api/gc/reference")
+    public Map<String, Object> removeReference(@RequestParam int from, @RequestParam int to) {
+        return memoryService.updateReference(from, to, false);
     }
 }
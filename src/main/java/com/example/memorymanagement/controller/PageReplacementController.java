@@ -0,0 +1,69 @@
+package com.example.memorymanagement.controller;
+
+import com.example.memorymanagement.service.PageReplacementService;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/page-replacement")
+public class PageReplacementController {
+
+    private final PageReplacementService pageReplacementService;
+
+    public PageReplacementController(PageReplacementService pageReplacementService) {
+        this.pageReplacementService = pageReplacementService;
+    }
+
+    @PostMapping(value = "/trace", consumes = "multipart/form-data")
+    public Map<String, Object> simulateUploadedTrace(@RequestParam("file") MultipartFile file,
+                                                     @RequestParam int frames,
+                                                     @RequestParam String algorithm) throws IOException {
+        try (InputStream trace = file.getInputStream()) {
+            return pageReplacementService.simulateTrace(trace, frames, algorithm);
+        }
+    }
+
+    @PostMapping(value = "/trace", consumes = {"text/plain", "application/octet-stream"})
+    public Map<String, Object> simulateStreamedTrace(InputStream trace,
+                                                     @RequestParam int frames,
+                                                     @RequestParam String algorithm) {
+        return pageReplacementService.simulateTrace(trace, frames, algorithm);
+    }
+
+    @PostMapping(value = "/mrc", consumes = "multipart/form-data")
+    public Map<String, Object> uploadedMissRatioCurve(@RequestParam("file") MultipartFile file,
+                                                      @RequestParam(defaultValue = "0") int maxFrames,
+                                                      @RequestParam(defaultValue = "1.0") double sampleRate) throws IOException {
+        try (InputStream trace = file.getInputStream()) {
+            return pageReplacementService.missRatioCurve(trace, maxFrames, sampleRate);
+        }
+    }
+
+    @PostMapping(value = "/mrc", consumes = {"text/plain", "application/octet-stream"})
+    public Map<String, Object> streamedMissRatioCurve(InputStream trace,
+                                                      @RequestParam(defaultValue = "0") int maxFrames,
+                                                      @RequestParam(defaultValue = "1.0") double sampleRate) {
+        return pageReplacementService.missRatioCurve(trace, maxFrames, sampleRate);
+    }
+
+    @PostMapping(value = "/compare", consumes = "multipart/form-data")
+    public Map<String, Object> compareUploadedTrace(@RequestParam("file") MultipartFile file,
+                                                    @RequestParam List<String> algorithms,
+                                                    @RequestParam List<Integer> frames) throws IOException {
+        try (InputStream trace = file.getInputStream()) {
+            return pageReplacementService.compare(trace, algorithms, frames);
+        }
+    }
+
+    @PostMapping(value = "/compare", consumes = {"text/plain", "application/octet-stream"})
+    public Map<String, Object> compareStreamedTrace(InputStream trace,
+                                                    @RequestParam List<String> algorithms,
+                                                    @RequestParam List<Integer> frames) {
+        return pageReplacementService.compare(trace, algorithms, frames);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.memorymanagement.controller;
+
+import com.example.memorymanagement.service.StateStreamService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stream")
+public class StateStreamController {
+
+    private final StateStreamService stateStreamService;
+
+    public StateStreamController(StateStreamService stateStreamService) {
+        this.stateStreamService = stateStreamService;
+    }
+
+    @GetMapping(produces = "text/event-stream")
+    public SseEmitter subscribe() {
+        SseEmitter emitter = stateStreamService.subscribe();
+        if (emitter == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many stream subscribers");
+        }
+        return emitter;
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> getStreamStatistics() {
+        return stateStreamService.getStreamStatistics();
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.memorymanagement.controller;
 
+import com.example.memorymanagement.service.MemoryService;
 import com.example.memorymanagement.service.SwappingService;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/swap")
@@ -11,19 +15,28 @@ import java.util.List;
 public class SwappingController {
 
     private final SwappingService swappingService;
+    private final MemoryService memoryService;
 
-    public SwappingController(SwappingService swappingService) {
+    public SwappingController(SwappingService swappingService, MemoryService memoryService) {
         this.swappingService = swappingService;
+        this.memoryService = memoryService;
     }
 
     @PostMapping("/out")
-    public String swapOut(@RequestParam String processId) {
-        return swappingService.swapOut(processId);
+    public CompletableFuture<String> swapOut(@RequestParam String processId) {
+        return memoryService.swapOut(processId);
     }
 
     @PostMapping("/in")
-    public String swapIn(@RequestParam String processId) {
-        return swappingService.swapIn(processId);
+    public CompletableFuture<String> swapIn(@RequestParam String processId) {
+        return memoryService.swapIn(processId);
+    }
+
+    @PostMapping("/batch")
+    public CompletableFuture<Map<String, Object>> swapBatch(@RequestParam(required = false) List<String> out,
+                                                            @RequestParam(required = false) List<String> in) {
+        return memoryService.swapBatch(out != null ? out : Collections.<String>emptyList(),
+                in != null ? in : Collections.<String>emptyList());
     }
 
     @GetMapping("/ram")
@@ -36,4 +49,9 @@ public class SwappingController {
         return swappingService.getSwapProcesses();
     }
 
+    @GetMapping("/stats")
+    public Map<String, Object> getSwapStatistics() {
+        return swappingService.getSwapStatistics();
+    }
+
 }
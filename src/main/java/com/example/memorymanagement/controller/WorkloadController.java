@@ -0,0 +1,61 @@
+package com.example.memorymanagement.controller;
+
+import com.example.memorymanagement.service.LoadDriverService;
+import com.example.memorymanagement.service.workload.Locality;
+import com.example.memorymanagement.service.workload.WorkloadGenerator;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/workload")
+public class WorkloadController {
+    private static final int MAX_TRACE_LENGTH = 10_000_000;
+
+    private final LoadDriverService loadDriverService;
+
+    public WorkloadController(LoadDriverService loadDriverService) {
+        this.loadDriverService = loadDriverService;
+    }
+
+    @PostMapping("/run")
+    public CompletableFuture<Map<String, Object>> run(@RequestParam(defaultValue = "zipf") String locality,
+                                                      @RequestParam(defaultValue = "200") double rate,
+                                                      @RequestParam(defaultValue = "10") int durationSeconds,
+                                                      @RequestParam(defaultValue = "16") int workers,
+                                                      @RequestParam(defaultValue = "0.6") double allocateRatio,
+                                                      @RequestParam(defaultValue = "8") int maxSize,
+                                                      @RequestParam(defaultValue = "0") double swapRatio,
+                                                      @RequestParam(defaultValue = "first") String algorithm,
+                                                      @RequestParam(required = false) Long seed) {
+        return loadDriverService.run(locality, rate, durationSeconds, workers, allocateRatio, maxSize, swapRatio,
+                algorithm, seed != null ? seed : System.nanoTime());
+    }
+
+    // One page number per line, ready for /api/page-replacement/trace, /mrc and /compare.
+    @GetMapping(value = "/trace", produces = "text/plain")
+    public String trace(@RequestParam(defaultValue = "zipf") String locality,
+                        @RequestParam(defaultValue = "100000") int length,
+                        @RequestParam(defaultValue = "1000") int pages,
+                        @RequestParam(defaultValue = "42") long seed) {
+        if (length <= 0 || length > MAX_TRACE_LENGTH || pages <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Trace length must be 1-" + MAX_TRACE_LENGTH + " and pages positive");
+        }
+        Locality model;
+        try {
+            model = Locality.from(locality);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        int[] trace = WorkloadGenerator.pageTrace(model, length, pages, seed);
+        StringBuilder text = new StringBuilder(length * 4);
+        for (int page : trace) {
+            text.append(page).append('\n');
+        }
+        return text.toString();
+    }
+}
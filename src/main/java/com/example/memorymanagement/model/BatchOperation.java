@@ -0,0 +1,82 @@
+package com.example.memorymanagement.model;
+
+// One entry of a /api/batch request. A free names its block directly, or with ref the index of an
+// earlier allocate in the same batch whose block it releases.
+public class BatchOperation {
+    private String type;
+    private int size;
+    private String algorithm = "first";
+    private int processId;
+    private Integer blockId;
+    private Integer ref;
+
+    public BatchOperation() {}
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public int getProcessId() {
+        return processId;
+    }
+
+    public void setProcessId(int processId) {
+        this.processId = processId;
+    }
+
+    public Integer getBlockId() {
+        return blockId;
+    }
+
+    public void setBlockId(Integer blockId) {
+        this.blockId = blockId;
+    }
+
+    public Integer getRef() {
+        return ref;
+    }
+
+    public void setRef(Integer ref) {
+        this.ref = ref;
+    }
+
+    public boolean isAllocate() {
+        return "allocate".equalsIgnoreCase(type);
+    }
+
+    public boolean isFree() {
+        return "free".equalsIgnoreCase(type);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchOperation{" +
+                "type='" + type + '\'' +
+                ", size=" + size +
+                ", algorithm='" + algorithm + '\'' +
+                ", processId=" + processId +
+                ", blockId=" + blockId +
+                ", ref=" + ref +
+                '}';
+    }
+}
@@ -7,6 +7,7 @@ public class MemoryBlock {
     private String processId;
 
     private boolean used;
+    private boolean allocationStart;
 
     public boolean isUsed() {
         return used;
@@ -58,6 +59,15 @@ public class MemoryBlock {
         this.processId = processId;
     }
 
+    // First block of an allocation, the only block id that frees it.
+    public boolean isAllocationStart() {
+        return allocationStart;
+    }
+
+    public void setAllocationStart(boolean allocationStart) {
+        this.allocationStart = allocationStart;
+    }
+
     public void allocate(String processId) {
         this.free = false;
         this.processId = processId;
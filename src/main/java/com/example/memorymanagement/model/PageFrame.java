@@ -5,6 +5,7 @@ public class PageFrame {
     private int pageNumber;
     private boolean occupied;
     private long lastAccessTime;
+    private boolean referenced;
 
     public PageFrame() {}
 
@@ -49,9 +50,18 @@ public class PageFrame {
         this.lastAccessTime = lastAccessTime;
     }
 
+    public boolean isReferenced() {
+        return referenced;
+    }
+
+    public void setReferenced(boolean referenced) {
+        this.referenced = referenced;
+    }
+
     public void clear() {
         this.pageNumber = -1;
         this.occupied = false;
+        this.referenced = false;
     }
 
     @Override
@@ -60,6 +70,7 @@ public class PageFrame {
                 "frameId=" + frameId +
                 ", pageNumber=" + pageNumber +
                 ", occupied=" + occupied +
+                ", referenced=" + referenced +
                 '}';
     }
 }
\ No newline at end of file
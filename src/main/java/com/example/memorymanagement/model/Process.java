@@ -9,8 +9,11 @@ public class Process {
     private String status;
     private LocalDateTime createdAt;
     private int priority;
+    private long lastAccessTime;
 
-    public Process() {}
+    public Process() {
+        this.lastAccessTime = System.currentTimeMillis();
+    }
 
     public Process(int id, String name, int size, String status) {
         this.id = id;
@@ -19,6 +22,7 @@ public class Process {
         this.status = status;
         this.createdAt = LocalDateTime.now();
         this.priority = 0;
+        this.lastAccessTime = System.currentTimeMillis();
     }
 
     public Process(int id, String name, int size, String status, int priority) {
@@ -28,6 +32,7 @@ public class Process {
         this.status = status;
         this.createdAt = LocalDateTime.now();
         this.priority = priority;
+        this.lastAccessTime = System.currentTimeMillis();
     }
 
     // Getters and Setters
@@ -79,6 +84,14 @@ public class Process {
         this.priority = priority;
     }
 
+    public long getLastAccessTime() {
+        return lastAccessTime;
+    }
+
+    public void setLastAccessTime(long lastAccessTime) {
+        this.lastAccessTime = lastAccessTime;
+    }
+
     @Override
     public String toString() {
         return "Process{" +
@@ -0,0 +1,161 @@
+package com.example.memorymanagement.service;
+
+import com.example.memorymanagement.service.gc.ConcurrentMarker;
+import com.example.memorymanagement.service.gc.MarkBitmap;
+import com.example.memorymanagement.service.gc.ParallelMarker;
+import com.example.memorymanagement.service.gc.SyntheticHeap;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Marking benchmarks on a synthetic heap, independent of the simulated memory pool.
+@Service
+public class GcBenchmarkService {
+    private static final int MAX_OBJECTS = 20_000_000;
+    private static final int MAX_THREADS = 256;
+    private static final int MAX_REPETITIONS = 100;
+
+    // The heap and mark bitmaps of one run can take a large share of the JVM heap, so runs never overlap.
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public Map<String, Object> benchmarkMarking(int objects, int fields, List<Integer> threadCounts,
+                                                boolean concurrent, int repetitions, long seed) {
+        Map<String, Object> result = new HashMap<>();
+        if (objects <= 0 || objects > MAX_OBJECTS) {
+            result.put("success", false);
+            result.put("message", "Object count must be between 1 and " + MAX_OBJECTS);
+            return result;
+        }
+        if (fields <= 0 || fields > 16) {
+            result.put("success", false);
+            result.put("message", "Fields per object must be between 1 and 16");
+            return result;
+        }
+        int maxThreads = 1;
+        for (int threads : threadCounts) {
+            if (threads <= 0 || threads > MAX_THREADS) {
+                result.put("success", false);
+                result.put("message", "Thread counts must be between 1 and " + MAX_THREADS);
+                return result;
+            }
+            maxThreads = Math.max(maxThreads, threads);
+        }
+        if (repetitions > MAX_REPETITIONS) {
+            result.put("success", false);
+            result.put("message", "Repetitions must be at most " + MAX_REPETITIONS);
+            return result;
+        }
+        repetitions = Math.max(1, repetitions);
+
+        // Concurrent runs need spare capacity for the mutator's allocations and one extra thread for it.
+        int spare = concurrent ? objects / 4 : 0;
+        // The field array plus a few mark bitmaps, held to half of the heap that is still free.
+        long neededBytes = (long) (objects + spare) * fields * Integer.BYTES + (long) (objects + spare) / 2;
+        Runtime runtime = Runtime.getRuntime();
+        long availableBytes = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        if (neededBytes > availableBytes / 2) {
+            result.put("success", false);
+            result.put("message", "A heap of " + objects + " objects with " + fields + " fields needs about "
+                    + neededBytes / (1024 * 1024) + " MB, more than half of the " + availableBytes / (1024 * 1024)
+                    + " MB the JVM has free");
+            return result;
+        }
+        if (!running.compareAndSet(false, true)) {
+            result.put("success", false);
+            result.put("message", "A marking benchmark is already running");
+            return result;
+        }
+        try {
+            return run(result, objects, fields, spare, threadCounts, maxThreads, concurrent, repetitions, seed);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Map<String, Object> run(Map<String, Object> result, int objects, int fields, int spare,
+                                    List<Integer> threadCounts, int maxThreads, boolean concurrent,
+                                    int repetitions, long seed) {
+        SyntheticHeap heap = SyntheticHeap.generate(objects, fields, spare, seed);
+        ExecutorService executor = Executors.newFixedThreadPool(maxThreads + 1, task -> {
+            Thread thread = new Thread(task, "gc-benchmark");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            MarkBitmap serialMarks = new MarkBitmap(heap.capacity());
+            long serialNanos = Long.MAX_VALUE;
+            for (int i = 0; i < repetitions; i++) {
+                serialMarks = new MarkBitmap(heap.capacity());
+                long startTime = System.nanoTime();
+                ParallelMarker.markSerial(heap, serialMarks);
+                serialNanos = Math.min(serialNanos, System.nanoTime() - startTime);
+            }
+            long reachable = serialMarks.count();
+
+            List<Map<String, Object>> runs = new ArrayList<>();
+            for (int threads : threadCounts) {
+                long bestNanos = Long.MAX_VALUE;
+                long steals = 0;
+                for (int i = 0; i < repetitions; i++) {
+                    MarkBitmap marks = new MarkBitmap(heap.capacity());
+                    ParallelMarker marker = new ParallelMarker(heap, marks, threads, null);
+                    long startTime = System.nanoTime();
+                    marker.mark(heap.roots(), executor);
+                    long elapsed = System.nanoTime() - startTime;
+                    if (marks.count() != reachable) {
+                        throw new IllegalStateException("Parallel marking with " + threads + " threads marked "
+                                + marks.count() + " objects instead of " + reachable);
+                    }
+                    if (elapsed < bestNanos) {
+                        bestNanos = elapsed;
+                        steals = marker.steals();
+                    }
+                }
+                Map<String, Object> run = new HashMap<>();
+                run.put("threads", threads);
+                run.put("markMillis", bestNanos / 1e6);
+                run.put("speedup", Math.round((double) serialNanos / bestNanos * 100) / 100.0);
+                run.put("steals", steals);
+                runs.add(run);
+            }
+
+            result.put("objects", objects);
+            result.put("fieldsPerObject", fields);
+            result.put("reachableObjects", reachable);
+            result.put("serialMarkMillis", serialNanos / 1e6);
+            result.put("runs", runs);
+            result.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+
+            if (concurrent) {
+                int threads = threadCounts.isEmpty() ? 1 : threadCounts.get(threadCounts.size() - 1);
+                ConcurrentMarker marker = new ConcurrentMarker(heap, threads);
+                marker.run(executor, seed);
+
+                Map<String, Object> concurrentRun = new HashMap<>();
+                concurrentRun.put("threads", threads);
+                concurrentRun.put("concurrentMarkMillis", marker.concurrentNanos() / 1e6);
+                concurrentRun.put("remarkPauseMicros", marker.remarkNanos() / 1000);
+                concurrentRun.put("markedObjects", marker.marks().count());
+                concurrentRun.put("mutatorOperations", marker.mutatorOperations());
+                concurrentRun.put("satbEntries", marker.satbEntries());
+                concurrentRun.put("allocatedDuringMark", marker.allocatedDuringMark());
+                concurrentRun.put("steals", marker.steals());
+                result.put("concurrent", concurrentRun);
+            }
+            result.put("success", true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.put("success", false);
+            result.put("message", "Benchmark interrupted");
+        } finally {
+            executor.shutdownNow();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,340 @@
+package com.example.memorymanagement.service;
+
+import com.example.memorymanagement.service.allocation.AllocationEngine;
+import com.example.memorymanagement.service.workload.Locality;
+import com.example.memorymanagement.service.workload.WorkloadGenerator;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Replays generated workloads against this instance's REST endpoints over HTTP. Each worker paces its
+// requests so all of them together issue the target rate; a worker never has more than one request
+// outstanding. Latency is measured from when a request was due, not when it was sent, so a stall shows
+// up in the percentiles instead of silently lowering the rate.
+@Service
+public class LoadDriverService {
+    private static final int MAX_WORKERS = 512;
+    private static final int MAX_DURATION_SECONDS = 600;
+    private static final int TIMEOUT_MILLIS = 10_000;
+    private static final Pattern BLOCK_ID = Pattern.compile("\"blockId\"\\s*:\\s*(\\d+)");
+    private static final Pattern SUCCESS = Pattern.compile("\"success\"\\s*:\\s*true");
+    private static final Pattern QUOTED = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    // Runs only ever target this instance, and never faster than the configured ceiling.
+    private final String baseUrl;
+    private final double maxRate;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "load-driver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LoadDriverService(@Value("${server.port:8080}") int serverPort,
+                             @Value("${memory.workload.max-rate:2000}") double maxRate) {
+        this.baseUrl = "http://localhost:" + serverPort;
+        this.maxRate = maxRate;
+    }
+
+    @PreDestroy
+    public void stop() {
+        runner.shutdownNow();
+    }
+
+    public CompletableFuture<Map<String, Object>> run(String locality, double rate, int durationSeconds, int workers,
+                                                      double allocateRatio, int maxSize, double swapRatio,
+                                                      String algorithm, long seed) {
+        Map<String, Object> failure = new HashMap<>();
+        failure.put("success", false);
+        Locality model;
+        try {
+            model = Locality.from(locality);
+        } catch (IllegalArgumentException e) {
+            failure.put("message", e.getMessage());
+            return CompletableFuture.completedFuture(failure);
+        }
+        if (rate <= 0 || rate > maxRate || durationSeconds <= 0 || durationSeconds > MAX_DURATION_SECONDS
+                || workers <= 0 || workers > MAX_WORKERS) {
+            failure.put("message", "Rate must be above 0 and at most " + maxRate + " requests/s, duration 1-"
+                    + MAX_DURATION_SECONDS + " seconds and workers 1-" + MAX_WORKERS);
+            return CompletableFuture.completedFuture(failure);
+        }
+        if (allocateRatio < 0 || allocateRatio > 1 || swapRatio < 0 || swapRatio > 1 || maxSize <= 0) {
+            failure.put("message", "Ratios must be between 0 and 1 and the maximum size positive");
+            return CompletableFuture.completedFuture(failure);
+        }
+        if (!AllocationEngine.isSupported(algorithm)) {
+            failure.put("message", "Unknown allocation algorithm: " + algorithm);
+            return CompletableFuture.completedFuture(failure);
+        }
+        if (!running.compareAndSet(false, true)) {
+            failure.put("message", "A load run is already in progress");
+            return CompletableFuture.completedFuture(failure);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return drive(model, rate, durationSeconds, workers, allocateRatio, maxSize, swapRatio,
+                            algorithm, seed, baseUrl);
+                } finally {
+                    running.set(false);
+                }
+            }, runner);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    private Map<String, Object> drive(Locality locality, double rate, int durationSeconds, int workers,
+                                      double allocateRatio, int maxSize, double swapRatio, String algorithm,
+                                      long seed, String baseUrl) {
+        List<String> processes = new ArrayList<>();
+        if (swapRatio > 0) {
+            try {
+                processes.addAll(quotedStrings(get(baseUrl + "/api/swap/ram")));
+                processes.addAll(quotedStrings(get(baseUrl + "/api/swap/space")));
+            } catch (IOException e) {
+                Map<String, Object> result = new HashMap<>();
+                result.put("success", false);
+                result.put("message", "Could not list processes at " + baseUrl + ": " + e.getMessage());
+                return result;
+            }
+        }
+
+        // Virtual threads are not available at this language level; one platform thread per worker
+        // keeps each worker's requests strictly sequential.
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers, task -> {
+            Thread thread = new Thread(task, "load-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalNanos = (long) (1e9 * workers / rate);
+        long start = System.nanoTime() + 10_000_000L;
+        long end = start + durationSeconds * 1_000_000_000L;
+        List<Future<Worker>> futures = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            // Each worker swaps only its own share of the processes, so two workers never race on one.
+            List<String> owned = new ArrayList<>();
+            for (int i = w; i < processes.size(); i += workers) {
+                owned.add(processes.get(i));
+            }
+            Worker worker = new Worker(new WorkloadGenerator(locality, allocateRatio, maxSize, swapRatio, owned,
+                    seed + w), baseUrl, algorithm);
+            long firstDue = start + intervalNanos * w / workers;
+            futures.add(pool.submit(() -> worker.run(firstDue, intervalNanos, end)));
+        }
+
+        Map<WorkloadGenerator.OperationType, Histogram> latencies =
+                new EnumMap<>(WorkloadGenerator.OperationType.class);
+        Histogram all = new Histogram(3);
+        Histogram serviceTimes = new Histogram(3);
+        long requests = 0;
+        long errors = 0;
+        long rejected = 0;
+        long finished = start;
+        try {
+            for (Future<Worker> future : futures) {
+                Worker worker = future.get();
+                requests += worker.requests;
+                errors += worker.errors;
+                rejected += worker.rejected;
+                finished = Math.max(finished, worker.finished);
+                serviceTimes.add(worker.serviceTimes);
+                for (Map.Entry<WorkloadGenerator.OperationType, Histogram> entry : worker.latencies.entrySet()) {
+                    all.add(entry.getValue());
+                    Histogram total = latencies.get(entry.getKey());
+                    if (total == null) {
+                        latencies.put(entry.getKey(), total = new Histogram(3));
+                    }
+                    total.add(entry.getValue());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "Load worker failed: " + e.getCause());
+            return result;
+        } finally {
+            pool.shutdownNow();
+        }
+        double elapsedSeconds = Math.max(1e-9, (finished - start) / 1e9);
+
+        Map<String, Object> operations = new HashMap<>();
+        for (Map.Entry<WorkloadGenerator.OperationType, Histogram> entry : latencies.entrySet()) {
+            operations.put(entry.getKey().name().toLowerCase(), percentiles(entry.getValue()));
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("message", requests + " requests in " + Math.round(elapsedSeconds * 10) / 10.0 + " s");
+        result.put("locality", locality.name().toLowerCase());
+        result.put("targetRate", rate);
+        result.put("achievedRate", Math.round(requests / elapsedSeconds * 10) / 10.0);
+        result.put("workers", workers);
+        result.put("requests", requests);
+        result.put("errors", errors);
+        result.put("rejected", rejected);
+        result.put("latencyMicros", percentiles(all));
+        result.put("serviceTimeMicros", percentiles(serviceTimes));
+        result.put("operations", operations);
+        return result;
+    }
+
+    private static Map<String, Object> percentiles(Histogram histogram) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("mean", Math.round(histogram.getMean()));
+        summary.put("p50", histogram.getValueAtPercentile(50));
+        summary.put("p90", histogram.getValueAtPercentile(90));
+        summary.put("p99", histogram.getValueAtPercentile(99));
+        summary.put("p999", histogram.getValueAtPercentile(99.9));
+        summary.put("max", histogram.getMaxValue());
+        return summary;
+    }
+
+    private static final class Worker {
+        private final WorkloadGenerator generator;
+        private final String baseUrl;
+        private final String algorithm;
+        private final Map<WorkloadGenerator.OperationType, Histogram> latencies =
+                new EnumMap<>(WorkloadGenerator.OperationType.class);
+        private final Histogram serviceTimes = new Histogram(3);
+        private long requests;
+        private long errors;
+        private long rejected;
+        private long finished;
+
+        Worker(WorkloadGenerator generator, String baseUrl, String algorithm) {
+            this.generator = generator;
+            this.baseUrl = baseUrl;
+            this.algorithm = algorithm;
+        }
+
+        Worker run(long due, long intervalNanos, long end) {
+            while (due < end && !Thread.currentThread().isInterrupted()) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                    continue;
+                }
+                WorkloadGenerator.Operation operation = generator.next();
+                long sent = System.nanoTime();
+                try {
+                    execute(operation);
+                } catch (IOException e) {
+                    errors++;
+                }
+                long done = System.nanoTime();
+                requests++;
+                serviceTimes.recordValue((done - sent) / 1000);
+                Histogram histogram = latencies.get(operation.getType());
+                if (histogram == null) {
+                    latencies.put(operation.getType(), histogram = new Histogram(3));
+                }
+                histogram.recordValue((done - due) / 1000);
+                finished = done;
+                due += intervalNanos;
+            }
+            return this;
+        }
+
+        private void execute(WorkloadGenerator.Operation operation) throws IOException {
+            String response;
+            switch (operation.getType()) {
+                case ALLOCATE:
+                    response = post(baseUrl + "/api/allocate?size=" + operation.getSize() + "&algorithm=" + algorithm);
+                    Matcher block = BLOCK_ID.matcher(response);
+                    if (SUCCESS.matcher(response).find() && block.find()) {
+                        generator.allocated(Integer.parseInt(block.group(1)));
+                    } else {
+                        rejected++;
+                    }
+                    break;
+                case FREE:
+                    response = post(baseUrl + "/api/deallocate?blockId=" + operation.getBlockId());
+                    if (!SUCCESS.matcher(response).find()) {
+                        rejected++;
+                    }
+                    break;
+                default:
+                    boolean out = operation.getType() == WorkloadGenerator.OperationType.SWAP_OUT;
+                    response = post(baseUrl + "/api/swap/" + (out ? "out" : "in") + "?processId="
+                            + URLEncoder.encode(operation.getProcess(), "UTF-8"));
+                    if (response.startsWith("✅")) {
+                        generator.swapped(operation.getProcess(), out);
+                    } else {
+                        rejected++;
+                    }
+                    break;
+            }
+        }
+    }
+
+    private static String post(String url) throws IOException {
+        return request(url, "POST");
+    }
+
+    private static String get(String url) throws IOException {
+        return request(url, "GET");
+    }
+
+    // Reads the whole body so the connection goes back to the keep-alive pool.
+    private static String request(String url, String method) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        if (in != null) {
+            try (InputStream stream = in) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = stream.read(buffer)) != -1) {
+                    body.write(buffer, 0, read);
+                }
+            }
+        }
+        if (status >= 400) {
+            throw new IOException("HTTP " + status + " from " + url);
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static List<String> quotedStrings(String json) {
+        List<String> values = new ArrayList<>();
+        Matcher matcher = QUOTED.matcher(json);
+        while (matcher.find()) {
+            values.add(matcher.group(1));
+        }
+        return values;
+    }
+}
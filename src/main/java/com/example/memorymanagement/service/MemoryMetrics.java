@@ -0,0 +1,106 @@
+package com.example.memorymanagement.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+// Micrometer meters for the memory operations. Timers carry an outcome tag, so failure rates come from
+// the same series as latencies; meters are cached per tag combination to keep registry lookups off the
+// hot paths.
+@Service
+public class MemoryMetrics {
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public MemoryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void recordAllocation(String algorithm, boolean success, long nanos) {
+        timer("memory.allocation", "Time to allocate blocks, including any compaction or reclaim it triggers",
+                "algorithm", algorithm.toLowerCase(), "outcome", outcome(success)).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDeallocation(String scope, boolean success, long nanos) {
+        timer("memory.deallocation", "Time to free an allocation or all allocations of a process",
+                "scope", scope, "outcome", outcome(success)).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPageReplacement(String algorithm, long nanos, long references, long faults) {
+        String tag = algorithm.toLowerCase();
+        timer("memory.page.replacement", "Time to run a reference string through a replacement policy",
+                "algorithm", tag, "outcome", "success").record(nanos, TimeUnit.NANOSECONDS);
+        counter("memory.page.references", "Page references simulated", "algorithm", tag).increment(references);
+        counter("memory.page.faults", "Page faults in simulated references", "algorithm", tag).increment(faults);
+    }
+
+    public void recordGc(String mode, long pauseNanos, long blocksReclaimed) {
+        timer("memory.gc.pause", "Mark-sweep collection pauses", "mode", mode, "outcome", "success")
+                .record(pauseNanos, TimeUnit.NANOSECONDS);
+        counter("memory.gc.reclaimed.blocks", "Blocks freed by the collector", "mode", mode).increment(blocksReclaimed);
+    }
+
+    public void recordCompaction(long nanos, long blocksMoved) {
+        timer("memory.compaction", "Compaction steps and passes", "outcome", "success")
+                .record(nanos, TimeUnit.NANOSECONDS);
+        counter("memory.compaction.moved.blocks", "Blocks moved by compaction").increment(blocksMoved);
+    }
+
+    // From queueing the request to its completion on the swap I/O thread.
+    public void recordSwap(String direction, boolean success, long nanos) {
+        timer("memory.swap", "Swap requests from queueing to completion",
+                "direction", direction, "outcome", outcome(success)).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> void gauge(String name, String description, T source, ToDoubleFunction<T> value) {
+        Gauge.builder(name, source, value).description(description).register(registry);
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        String key = key(name, tags);
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(key, ignored -> Timer.builder(name)
+                    .description(description)
+                    .tags(tags)
+                    .publishPercentiles(PERCENTILES)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        return timer;
+    }
+
+    private Counter counter(String name, String description, String... tags) {
+        String key = key(name, tags);
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, ignored -> Counter.builder(name)
+                    .description(description)
+                    .tags(tags)
+                    .register(registry));
+        }
+        return counter;
+    }
+
+    private static String key(String name, String... tags) {
+        StringBuilder key = new StringBuilder(name);
+        for (String tag : tags) {
+            key.append('|').append(tag);
+        }
+        return key.toString();
+    }
+
+    private static String outcome(boolean success) {
+        return success ? "success" : "failure";
+    }
+}
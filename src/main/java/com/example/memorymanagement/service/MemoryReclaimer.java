@@ -0,0 +1,50 @@
+package com.example.memorymanagement.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Background reclaim: checks the pool's free-block watermarks on a fixed delay and takes one
+// compaction step when free space is fragmented.
+@Service
+public class MemoryReclaimer {
+
+    private final MemoryService memoryService;
+    private final long intervalMillis;
+    private ScheduledExecutorService executor;
+
+    public MemoryReclaimer(MemoryService memoryService,
+                           @Value("${memory.reclaim.interval-ms:250}") long intervalMillis) {
+        this.memoryService = memoryService;
+        this.intervalMillis = intervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "memory-reclaimer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::reclaim, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void reclaim() {
+        try {
+            memoryService.reclaimIfUnderPressure();
+            memoryService.compactIfFragmented();
+        } catch (RuntimeException e) {
+            // A failed pass must not cancel the schedule; the next tick tries again.
+        }
+    }
+}
@@ -1,12 +1,42 @@
 package com.example.memorymanagement.service;
 
+import com.example.memorymanagement.model.BatchOperation;
 import com.example.memorymanagement.model.MemoryBlock;
 import com.example.memorymanagement.model.Process;
 import com.example.memorymanagement.model.PageFrame;
+import com.example.memorymanagement.service.allocation.AllocationEngine;
+import com.example.memorymanagement.service.allocation.AllocationHandle;
+import com.example.memorymanagement.service.allocation.AllocationTable;
+import com.example.memorymanagement.service.allocation.BlockChangeLog;
+import com.example.memorymanagement.service.allocation.BuddyAllocator;
+import com.example.memorymanagement.service.allocation.Compactor;
+import com.example.memorymanagement.service.allocation.MemoryMapEncoder;
+import com.example.memorymanagement.service.allocation.PinState;
+import com.example.memorymanagement.service.allocation.PoolStatistics;
+import com.example.memorymanagement.service.allocation.SlabAllocator;
+import com.example.memorymanagement.service.gc.CollectionResult;
+import com.example.memorymanagement.service.gc.GcMode;
+import com.example.memorymanagement.service.gc.MarkSweepCollector;
+import com.example.memorymanagement.service.gc.ObjectGraph;
+import com.example.memorymanagement.service.paging.FifoPolicy;
+import com.example.memorymanagement.service.paging.LruPolicy;
+import com.example.memorymanagement.service.paging.OptimalPolicy;
+import com.example.memorymanagement.service.paging.PageReplacementPolicies;
+import com.example.memorymanagement.service.paging.PageReplacementPolicy;
+import com.example.memorymanagement.service.paging.ReferenceTrace;
+import com.example.memorymanagement.service.reclaim.VictimPolicy;
+import com.example.memorymanagement.service.swap.SwapOutcome;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 public class MemoryService {
@@ -14,34 +44,178 @@ public class MemoryService {
     @Autowired
     private SwappingService swappingService;
 
-    private List<MemoryBlock> memoryBlocks;
-    private List<Process> processes;
-    private List<PageFrame> pageFrames;
-    private int nextProcessId = 1;
-    private int totalAllocations = 0;
-    private int successfulAllocations = 0;
-    private int gcCollections = 0;
+    @Autowired
+    private StateEvents events;
 
-    public MemoryService() {
+    @Autowired
+    private MemoryMetrics metrics;
+
+    // The pool is split into independently locked arenas; only reset synchronizes on this.
+    private volatile AllocationEngine memory;
+    private volatile int poolBlocks;
+    private final int poolArenas;
+    private List<Process> processes;
+    private volatile List<PageFrame> pageFrames;
+    private final AtomicInteger nextProcessId = new AtomicInteger(1);
+    private final LongAdder totalAllocations = new LongAdder();
+    private final LongAdder successfulAllocations = new LongAdder();
+    private final LongAdder gcCollections = new LongAdder();
+
+    // Outlives resets so versions keep growing; mutating calls answer with the ranges changed since they started.
+    private final BlockChangeLog changeLog;
+
+    // Allocations form the heap of the GC simulation. Collections, compaction steps and heap mutation hold
+    // gcLock. Allocations and frees only queue graph updates (start for a registration, -start - 1 for a
+    // removal); whoever next takes gcLock applies them first, and a long queue is applied by its producer.
+    private static final int MAX_QUEUED_HEAP_UPDATES = 4096;
+    private final Object gcLock = new Object();
+    private volatile ObjectGraph heapGraph;
+    private volatile MarkSweepCollector collector;
+    private final Queue<Integer> heapUpdates = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedHeapUpdates = new AtomicInteger();
+    private final LongAdder gcPauseNanos = new LongAdder();
+    private volatile long lastGcPauseNanos;
+    @Value("${memory.gc.tenure-age:2}")
+    private int tenureAge;
+    @Value("${memory.gc.max-mutations:100000}")
+    private int maxMutations;
+
+    // Free-block watermarks, as fractions of the pool: below low the reclaimer swaps processes out until high is free.
+    private final double lowWatermark;
+    private final double highWatermark;
+    private final VictimPolicy victimPolicy;
+    private final Object reclaimLock = new Object();
+    private final LongAdder backgroundReclaims = new LongAdder();
+    private final LongAdder directReclaims = new LongAdder();
+    private final LongAdder reclaimedBlocks = new LongAdder();
+    private final LongAdder swappedOutProcesses = new LongAdder();
+
+    // Handed out until something it reports changes; see getMemoryStatistics.
+    private volatile CachedStatistics statistics;
+
+    // Budget of one compaction step; a full pass is a sequence of steps with the pool usable in between.
+    @Value("${memory.compaction.step-blocks:256}")
+    private int compactionStepBlocks;
+    @Value("${memory.compaction.step-micros:500}")
+    private long compactionStepMicros;
+    @Value("${memory.compaction.background-threshold:0.5}")
+    private double compactionThreshold;
+    @Value("${memory.pool.block-bytes:1024}")
+    private int blockBytes;
+    @Value("${memory.pool.max-blocks:1048576}")
+    private int maxPoolBlocks;
+    @Value("${memory.batch.max-operations:100000}")
+    private int maxBatchOperations;
+
+    public MemoryService(@Value("${memory.pool.blocks:100}") int poolBlocks,
+                         @Value("${memory.pool.arenas:0}") int poolArenas,
+                         @Value("${memory.reclaim.low-watermark:0.10}") double lowWatermark,
+                         @Value("${memory.reclaim.high-watermark:0.25}") double highWatermark,
+                         @Value("${memory.reclaim.policy:lru}") String victimPolicy,
+                         @Value("${memory.changes.log-size:4096}") int changeLogSize) {
+        if (lowWatermark < 0 || highWatermark > 1 || lowWatermark > highWatermark) {
+            throw new IllegalArgumentException("Reclaim watermarks must satisfy 0 <= low <= high <= 1");
+        }
+        this.poolBlocks = poolBlocks;
+        this.poolArenas = poolArenas;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.victimPolicy = VictimPolicy.from(victimPolicy);
+        this.changeLog = new BlockChangeLog(changeLogSize);
         initializeMemory();
     }
 
-    private void initializeMemory() {
-        memoryBlocks = new ArrayList<>();
-        processes = new ArrayList<>();
-        pageFrames = new ArrayList<>();
+    // Gauges read counters the pool keeps up to date on every allocation and free; nothing is rescanned.
+    @PostConstruct
+    public void registerGauges() {
+        metrics.gauge("memory.blocks.free", "Free blocks in the pool", this, service -> service.memory.freeBlocks());
+        metrics.gauge("memory.blocks.allocated", "Allocated blocks in the pool",
+                this, service -> service.memory.allocatedBlocks());
+        metrics.gauge("memory.blocks.total", "Blocks in the pool", this, service -> service.memory.capacity());
+        metrics.gauge("memory.holes", "Runs of free blocks", this, service -> service.memory.holeCount());
+        metrics.gauge("memory.hole.largest", "Largest run of free blocks",
+                this, service -> service.memory.largestHole());
+        metrics.gauge("memory.fragmentation", "1 - largest free run / free blocks",
+                this, service -> service.memory.compactor().fragmentationIndex());
+        metrics.gauge("memory.heap.objects", "Objects in the GC heap graph",
+                this, service -> service.heapGraph.objectCount());
+    }
 
-        for (int i = 0; i < 100; i++) {
-            memoryBlocks.add(new MemoryBlock(i, true, 1));
-        }
+    private synchronized void initializeMemory() {
+        changeLog.invalidate();
+        AllocationEngine engine = new AllocationEngine(poolBlocks, poolArenas, changeLog);
+        ObjectGraph graph = new ObjectGraph();
+        engine.compactor().setRelocationListener(graph::relocate);
+        heapGraph = graph;
+        heapUpdates.clear();
+        queuedHeapUpdates.set(0);
+        collector = new MarkSweepCollector(poolBlocks);
+        memory = engine;
+        processes = new CopyOnWriteArrayList<>();
+        pageFrames = new ArrayList<>();
 
         for (int i = 0; i < 4; i++) {
             pageFrames.add(new PageFrame(i, -1));
         }
     }
 
+    // Views are only materialised for the REST layer; the allocator works on the pool.
     public List<MemoryBlock> getMemoryBlocks() {
-        return memoryBlocks;
+        return memory.snapshotBlocks();
+    }
+
+    // Binary form of the memory map; its version can be passed to getChangesSince to follow up with deltas.
+    public byte[] getMemoryMap() {
+        AllocationEngine memory = this.memory;
+        long version = changeLog.version();
+        return MemoryMapEncoder.encode(memory, version);
+    }
+
+    // Ranges changed since a client's version; clients that are too far behind get the whole map instead.
+    public Map<String, Object> getChangesSince(long since) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        putChanges(result, since);
+        return result;
+    }
+
+    // The whole map in the same form as getChangesSince; the version is read first, so following up with the
+    // changes since it can only repeat changes, never miss one.
+    public Map<String, Object> getMemorySnapshot() {
+        AllocationEngine memory = this.memory;
+        long version = changeLog.version();
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("fromVersion", version);
+        result.put("version", version);
+        result.put("full", true);
+        result.put("memoryBlocks", memory.snapshotBlocks());
+        return result;
+    }
+
+    public long getChangesVersion() {
+        return changeLog.version();
+    }
+
+    private void putChanges(Map<String, Object> result, long since) {
+        AllocationEngine memory = this.memory;
+        BlockChangeLog.Changes changes = changeLog.changesSince(since);
+        result.put("fromVersion", since);
+        result.put("version", changes.getVersion());
+        if (!changes.isComplete() || changes.blockCount() > memory.capacity() / 2) {
+            result.put("full", true);
+            result.put("memoryBlocks", memory.snapshotBlocks());
+            return;
+        }
+        List<Map<String, Object>> ranges = new ArrayList<>(changes.getRanges().size());
+        for (int[] range : changes.getRanges()) {
+            Map<String, Object> change = new HashMap<>();
+            change.put("start", range[0]);
+            change.put("blocks", memory.snapshotBlocks(range[0], Math.min(range[1], memory.capacity())));
+            ranges.add(change);
+        }
+        result.put("full", false);
+        result.put("changes", ranges);
     }
 
     public List<Process> getProcesses() {
@@ -49,136 +223,677 @@ public class MemoryService {
     }
 
     public Map<String, Object> allocateMemory(int size, String algorithm) {
-        totalAllocations++;
-        MemoryBlock allocatedBlock = null;
+        return allocate(size, algorithm, AllocationTable.NO_OWNER);
+    }
 
-        switch (algorithm.toLowerCase()) {
-            case "first":
-                allocatedBlock = firstFit(size);
-                break;
-            case "best":
-                allocatedBlock = bestFit(size);
-                break;
-            case "worst":
-                allocatedBlock = worstFit(size);
-                break;
+    // Owners are process ids; NO_OWNER is reserved for anonymous allocations and heap objects.
+    public Map<String, Object> allocateMemory(int size, String algorithm, int processId) {
+        if (processId <= AllocationTable.NO_OWNER) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "Process id must be positive: " + processId);
+            return result;
+        }
+        return allocate(size, algorithm, processId);
+    }
+
+    private Map<String, Object> allocate(int size, String algorithm, int processId) {
+        long since = changeLog.version();
+        if (!AllocationEngine.isSupported(algorithm)) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "Unknown allocation algorithm: " + algorithm);
+            return result;
         }
 
+        totalAllocations.increment();
+        touch(processId);
+        long startTime = System.nanoTime();
+        int allocatedStart = allocateWithReclaim(size, algorithm, processId);
+        metrics.recordAllocation(algorithm, allocatedStart != -1, System.nanoTime() - startTime);
+
         Map<String, Object> result = new HashMap<>();
-        if (allocatedBlock != null) {
-            successfulAllocations++;
+        if (allocatedStart != -1) {
+            successfulAllocations.increment();
+            track(allocatedStart, false);
+            events.record(StateEvents.Type.ALLOCATE);
             result.put("success", true);
-            result.put("blockId", allocatedBlock.getId());
-            result.put("message", "Memory allocated successfully using " + algorithm + " fit");
+            result.put("blockId", allocatedStart);
+            if ("buddy".equalsIgnoreCase(algorithm)) {
+                result.put("message", "Memory allocated successfully using the buddy system");
+            } else if ("slab".equalsIgnoreCase(algorithm)) {
+                result.put("message", "Memory allocated successfully from the slab allocator");
+            } else {
+                result.put("message", "Memory allocated successfully using " + algorithm + " fit");
+            }
         } else {
             result.put("success", false);
             result.put("message", "No suitable memory block found");
         }
 
-        result.put("memoryBlocks", memoryBlocks);
+        putChanges(result, since);
         result.put("stats", getMemoryStatistics());
         return result;
     }
 
-    private MemoryBlock firstFit(int size) {
-        int count = 0;
-        for (int i = 0; i <= memoryBlocks.size() - size; i++) {
-            boolean canAllocate = true;
-            for (int j = 0; j < size; j++) {
-                if (!memoryBlocks.get(i + j).isFree()) {
-                    canAllocate = false;
+    // Direct reclaim: when nothing fits, compact if that can make room, then swap out victims other than
+    // the requester and retry until the allocation succeeds or there is nothing left to reclaim.
+    // Allocations come back pinned, so compaction cannot move them before track registers them.
+    private int allocateWithReclaim(int size, String algorithm, int processId) {
+        int start = memory.allocatePinned(size, algorithm, processId);
+        return start != -1 ? start : reclaimAndAllocate(size, algorithm, processId);
+    }
+
+    // The slow path of allocateWithReclaim, for an allocation that has just failed to fit.
+    private int reclaimAndAllocate(int size, String algorithm, int processId) {
+        int start = compactAndAllocate(size, algorithm, processId);
+        while (start == -1 && size <= memory.capacity()) {
+            directReclaims.increment();
+            if (reclaim(size, processId) == 0) {
+                break;
+            }
+            start = memory.allocatePinned(size, algorithm, processId);
+        }
+        return start;
+    }
+
+    // Only the fit algorithms allocate straight from the pool, and an allocation never spans arenas, so
+    // compaction can help only when one arena holds enough free blocks. Steps are bounded and gcLock is
+    // released between them, so frees, collections and other allocations go on while this one waits.
+    private int compactAndAllocate(int size, String algorithm, int processId) {
+        if (!AllocationEngine.isPoolFit(algorithm)) {
+            return -1;
+        }
+        AllocationEngine memory = this.memory;
+        Compactor compactor = memory.compactor();
+        // A cycle already under way has passed the start of the pool, so it takes two to cover it all.
+        long lastCycle = compactor.cycles() + (compactor.cursor() == 0 ? 1 : 2);
+        int start = -1;
+        while (start == -1 && compactor.cycles() < lastCycle && memory.largestArenaFree() >= size) {
+            long startTime = System.nanoTime();
+            int moved = compactionStep(compactor);
+            metrics.recordCompaction(System.nanoTime() - startTime, moved);
+            if (moved > 0) {
+                events.record(StateEvents.Type.COMPACT);
+            }
+            start = memory.allocatePinned(size, algorithm, processId);
+        }
+        return start;
+    }
+
+    // Run periodically by the MemoryReclaimer.
+    public int reclaimIfUnderPressure() {
+        AllocationEngine memory = this.memory;
+        if (memory.freeBlocks() >= Math.ceil(memory.capacity() * lowWatermark)) {
+            return 0;
+        }
+        backgroundReclaims.increment();
+        int target = (int) Math.ceil(memory.capacity() * highWatermark);
+        return reclaim(target - memory.freeBlocks(), AllocationTable.NO_OWNER);
+    }
+
+    // Swaps out resident processes in victim-policy order until at least blocksNeeded blocks are released.
+    // Pages are written to swap before the process's blocks are freed.
+    private int reclaim(int blocksNeeded, int requesterId) {
+        synchronized (reclaimLock) {
+            AllocationEngine memory = this.memory;
+            List<Process> candidates = new ArrayList<>();
+            for (Process process : processes) {
+                if ("Ready".equals(process.getStatus()) && process.getId() != requesterId
+                        && !memory.allocations().ownedBy(process.getId()).isEmpty()) {
+                    candidates.add(process);
+                }
+            }
+            candidates.sort(victimPolicy.order());
+
+            List<Process> victims = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            int planned = 0;
+            for (Process process : candidates) {
+                if (planned >= blocksNeeded) {
                     break;
                 }
+                victims.add(process);
+                names.add(process.getName());
+                for (AllocationHandle handle : memory.allocations().ownedBy(process.getId())) {
+                    planned += handle.getLength();
+                }
+            }
+            if (victims.isEmpty()) {
+                return 0;
             }
-            if (canAllocate) {
-                for (int j = 0; j < size; j++) {
-                    memoryBlocks.get(i + j).setFree(false);
+
+            List<SwapOutcome> outcomes = swappingService.swapOutAll(names).join();
+            int freed = 0;
+            for (int i = 0; i < victims.size(); i++) {
+                if (!outcomes.get(i).isSuccess()) {
+                    continue;
+                }
+                Process victim = victims.get(i);
+                for (AllocationHandle handle : freeOwnerTracked(victim.getId())) {
+                    freed += handle.getLength();
                 }
-                return memoryBlocks.get(i);
+                victim.setStatus("Swapped");
+                swappedOutProcesses.increment();
             }
+            reclaimedBlocks.add(freed);
+            if (freed > 0) {
+                events.record(StateEvents.Type.FREE);
+            }
+            return freed;
         }
-        return null;
     }
 
-    private MemoryBlock bestFit(int size) {
-        int bestStart = -1;
-        int minWaste = Integer.MAX_VALUE;
+    // Manual swaps of processes this service created keep the pool in step with swap residency, as reclaim
+    // does: swapping out frees the process's blocks, swapping in reserves them again first (reclaiming from
+    // other processes if needed) and makes the process Ready. Other names only move pages.
+    public CompletableFuture<String> swapOut(String name) {
+        return queueSwapOut(name).thenApply(outcome -> SwappingService.message(outcome, "swapped out to disk"));
+    }
 
-        for (int i = 0; i <= memoryBlocks.size() - size; i++) {
-            boolean canAllocate = true;
-            int freeBlockSize = 0;
+    public CompletableFuture<String> swapIn(String name) {
+        return queueSwapIn(name).handle((outcome, error) -> error != null ? "❌ " + error.getMessage() + "!"
+                : SwappingService.message(outcome, "swapped in to RAM"));
+    }
 
-            for (int j = i; j < memoryBlocks.size() && memoryBlocks.get(j).isFree(); j++) {
-                freeBlockSize++;
-            }
+    // Swap-outs are queued before swap-ins reserve their blocks, and all of them before any is waited on.
+    public CompletableFuture<Map<String, Object>> swapBatch(List<String> swapOut, List<String> swapIn) {
+        List<CompletableFuture<SwapOutcome>> futures = new ArrayList<>();
+        for (String name : swapOut) {
+            futures.add(queueSwapOut(name));
+        }
+        for (String name : swapIn) {
+            futures.add(queueSwapIn(name));
+        }
+        return swappingService.batchResult(futures);
+    }
 
-            if (freeBlockSize >= size) {
-                int waste = freeBlockSize - size;
-                if (waste < minWaste) {
-                    minWaste = waste;
-                    bestStart = i;
+    // An owned process gives its pool blocks back once its pages are on disk.
+    private CompletableFuture<SwapOutcome> queueSwapOut(String name) {
+        Process process = findProcess(name);
+        if (process == null) {
+            return swappingService.queueSwapOut(name);
+        }
+        if (!"Ready".equals(process.getStatus())) {
+            return CompletableFuture.completedFuture(
+                    new SwapOutcome(name, false, "Process " + name + " is not in RAM", 0, 0));
+        }
+        return swappingService.queueSwapOut(name).thenApply(outcome -> {
+            if (outcome.isSuccess()) {
+                int freed = 0;
+                for (AllocationHandle handle : freeOwnerTracked(process.getId())) {
+                    freed += handle.getLength();
+                }
+                process.setStatus("Swapped");
+                swappedOutProcesses.increment();
+                if (freed > 0) {
+                    events.record(StateEvents.Type.FREE);
                 }
             }
+            return outcome;
+        });
+    }
+
+    private CompletableFuture<SwapOutcome> queueSwapIn(String name) {
+        Process process = findProcess(name);
+        if (process == null) {
+            return swappingService.queueSwapIn(name);
         }
+        if (!"Swapped".equals(process.getStatus())) {
+            return CompletableFuture.completedFuture(
+                    new SwapOutcome(name, false, "Process " + name + " is not in swap space", 0, 0));
+        }
+        // Reserved before queueing: reclaim waits on the swap I/O thread, so it cannot run in the callback.
+        totalAllocations.increment();
+        long startTime = System.nanoTime();
+        int start = allocateWithReclaim(process.getSize(), "first", process.getId());
+        metrics.recordAllocation("first", start != -1, System.nanoTime() - startTime);
+        if (start == -1) {
+            return CompletableFuture.completedFuture(new SwapOutcome(name, false,
+                    "Not enough memory to swap in " + name + ", even after reclaim", 0, 0));
+        }
+        successfulAllocations.increment();
+        AllocationEngine memory = this.memory;
+        return swappingService.queueSwapIn(name).whenComplete((outcome, error) -> {
+            if (outcome == null || !outcome.isSuccess()) {
+                memory.free(start);
+                return;
+            }
+            track(start, true);
+            process.setStatus("Ready");
+            process.setLastAccessTime(System.currentTimeMillis());
+            events.record(StateEvents.Type.ALLOCATE);
+        });
+    }
 
-        if (bestStart != -1) {
-            for (int j = 0; j < size; j++) {
-                memoryBlocks.get(bestStart + j).setFree(false);
+    private Process findProcess(String name) {
+        for (Process process : processes) {
+            if (process.getName().equals(name)) {
+                return process;
             }
-            return memoryBlocks.get(bestStart);
         }
         return null;
     }
 
-    private MemoryBlock worstFit(int size) {
-        int worstStart = -1;
-        int maxSize = 0;
+    public Map<String, Object> compactStep() {
+        long since = changeLog.version();
+        AllocationEngine memory = this.memory;
+        Compactor compactor = memory.compactor();
+        double fragmentationBefore = compactor.fragmentationIndex();
+        long cyclesBefore = compactor.cycles();
+        long startTime = System.nanoTime();
+        int moved = compactionStep(compactor);
+        metrics.recordCompaction(System.nanoTime() - startTime, moved);
+        if (moved > 0) {
+            events.record(StateEvents.Type.COMPACT);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("message", "Moved " + moved + " blocks");
+        result.put("blocksMoved", moved);
+        result.put("bytesMoved", (long) moved * blockBytes);
+        result.put("cycleComplete", compactor.cycles() > cyclesBefore);
+        result.put("cursor", compactor.cursor());
+        result.put("pauseMicros", (System.nanoTime() - startTime) / 1000);
+        result.put("fragmentationBefore", round(fragmentationBefore));
+        result.put("fragmentationAfter", round(compactor.fragmentationIndex()));
+        putChanges(result, since);
+        result.put("stats", getMemoryStatistics());
+        return result;
+    }
+
+    public Map<String, Object> compact() {
+        long since = changeLog.version();
+        AllocationEngine memory = this.memory;
+        double fragmentationBefore = memory.compactor().fragmentationIndex();
+        long startTime = System.nanoTime();
+        long[] cycle = compactFully(memory);
+        metrics.recordCompaction(System.nanoTime() - startTime, cycle[1]);
+        if (cycle[1] > 0) {
+            events.record(StateEvents.Type.COMPACT);
+        }
 
-        for (int i = 0; i <= memoryBlocks.size() - size; i++) {
-            int freeBlockSize = 0;
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("message", "Compaction moved " + cycle[1] + " blocks in " + cycle[0] + " steps");
+        result.put("steps", cycle[0]);
+        result.put("blocksMoved", cycle[1]);
+        result.put("bytesMoved", cycle[1] * blockBytes);
+        result.put("maxPauseMicros", cycle[2] / 1000);
+        result.put("elapsedMicros", (System.nanoTime() - startTime) / 1000);
+        result.put("fragmentationBefore", round(fragmentationBefore));
+        result.put("fragmentationAfter", round(memory.compactor().fragmentationIndex()));
+        putChanges(result, since);
+        result.put("stats", getMemoryStatistics());
+        return result;
+    }
+
+    // Run periodically by the MemoryReclaimer: one bounded step whenever free space is scattered.
+    public int compactIfFragmented() {
+        Compactor compactor = memory.compactor();
+        if (compactor.fragmentationIndex() < compactionThreshold) {
+            return 0;
+        }
+        long startTime = System.nanoTime();
+        int moved = compactionStep(compactor);
+        metrics.recordCompaction(System.nanoTime() - startTime, moved);
+        if (moved > 0) {
+            events.record(StateEvents.Type.COMPACT);
+        }
+        return moved;
+    }
+
+    // Queues a pending allocation to become a root heap object. It stays put until the update is applied, and
+    // after that only if it is not movable: a start handed to a client as a blockId has to stay where it is,
+    // or a later free by that id would miss it. An allocation that is no longer pending was freed, and
+    // whatever now starts there is registered by its own caller.
+    private void track(int start, boolean movable) {
+        if (memory.allocations().transition(start, PinState.PENDING,
+                movable ? PinState.QUEUED_MOVABLE : PinState.QUEUED_PINNED)) {
+            queueHeapUpdate(start);
+        }
+    }
+
+    private void untrack(int start) {
+        queueHeapUpdate(-start - 1);
+    }
+
+    private List<AllocationHandle> freeOwnerTracked(int owner) {
+        List<AllocationHandle> handles = memory.freeOwner(owner);
+        for (AllocationHandle handle : handles) {
+            untrack(handle.getStart());
+        }
+        return handles;
+    }
 
-            for (int j = i; j < memoryBlocks.size() && memoryBlocks.get(j).isFree(); j++) {
-                freeBlockSize++;
+    private void queueHeapUpdate(int update) {
+        heapUpdates.add(update);
+        if (queuedHeapUpdates.incrementAndGet() >= MAX_QUEUED_HEAP_UPDATES) {
+            synchronized (gcLock) {
+                applyHeapUpdates();
             }
+        }
+    }
 
-            if (freeBlockSize >= size && freeBlockSize > maxSize) {
-                maxSize = freeBlockSize;
-                worstStart = i;
+    // Caller holds gcLock. A removal is skipped when a settled allocation starts there again: either
+    // compaction slid a tracked object onto the start, or a newer registration has already been applied.
+    private void applyHeapUpdates() {
+        AllocationTable allocations = memory.allocations();
+        ObjectGraph graph = heapGraph;
+        int applied = 0;
+        Integer update;
+        while ((update = heapUpdates.poll()) != null) {
+            applied++;
+            if (update < 0) {
+                AllocationHandle handle = allocations.get(-update - 1);
+                if (handle == null || !handle.getPinState().isSettled()) {
+                    graph.remove(-update - 1);
+                }
+                continue;
             }
+            AllocationHandle handle = allocations.get(update);
+            if (handle != null && handle.getPinState().isQueued()
+                    && allocations.transition(update, handle.getPinState(), handle.getPinState().settled())) {
+                graph.add(update, handle.getLength(), true);
+            }
+        }
+        queuedHeapUpdates.addAndGet(-applied);
+    }
+
+    private int compactionStep(Compactor compactor) {
+        synchronized (gcLock) {
+            applyHeapUpdates();
+            return compactor.step(compactionStepBlocks, compactionStepMicros * 1000);
+        }
+    }
+
+    // Steps until the current cycle completes; returns {steps, blocks moved, longest step in nanos}. The graph
+    // lock is taken per step, so collections interleave with a long cycle.
+    private long[] compactFully(AllocationEngine memory) {
+        Compactor compactor = memory.compactor();
+        long cycles = compactor.cycles();
+        long steps = 0;
+        long moved = 0;
+        long maxPause = 0;
+        while (compactor.cycles() == cycles) {
+            long stepStart = System.nanoTime();
+            moved += compactionStep(compactor);
+            maxPause = Math.max(maxPause, System.nanoTime() - stepStart);
+            steps++;
         }
+        return new long[]{steps, moved, maxPause};
+    }
 
-        if (worstStart != -1) {
-            for (int j = 0; j < size; j++) {
-                memoryBlocks.get(worstStart + j).setFree(false);
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private void touch(int processId) {
+        if (processId == AllocationTable.NO_OWNER) {
+            return;
+        }
+        for (Process process : processes) {
+            if (process.getId() == processId) {
+                process.setLastAccessTime(System.currentTimeMillis());
+                return;
             }
-            return memoryBlocks.get(worstStart);
         }
-        return null;
     }
 
     public Map<String, Object> deallocateMemory(int blockId) {
-        if (blockId >= 0 && blockId < memoryBlocks.size()) {
-            memoryBlocks.get(blockId).setFree(true);
+        long since = changeLog.version();
+        long startTime = System.nanoTime();
+        AllocationHandle handle = memory.free(blockId);
+        if (handle != null) {
+            untrack(handle.getStart());
         }
+        metrics.recordDeallocation("block", handle != null, System.nanoTime() - startTime);
 
         Map<String, Object> result = new HashMap<>();
+        if (handle == null) {
+            result.put("success", false);
+            result.put("message", "No allocation starts at block " + blockId);
+            return result;
+        }
+        events.record(StateEvents.Type.FREE);
         result.put("success", true);
         result.put("message", "Memory deallocated successfully");
-        result.put("memoryBlocks", memoryBlocks);
+        result.put("blockId", handle.getStart());
+        result.put("length", handle.getLength());
+        putChanges(result, since);
+        result.put("stats", getMemoryStatistics());
+        return result;
+    }
+
+    // Applies allocate and free operations in order and answers with one result per operation plus the
+    // changes and stats of the whole batch. Each run of consecutive allocations is independent of its
+    // order, so with sortSizes it is placed largest first, which packs fits and buddy blocks tighter;
+    // when the run does not fit, the largest requests are then the ones that fail. Results carry their
+    // placement order. Compaction and reclaim run at most once per run, for its first failing allocation;
+    // later allocations in the run that do not fit fail without retrying.
+    public Map<String, Object> applyBatch(List<BatchOperation> operations, boolean sortSizes) {
+        long since = changeLog.version();
+        Map<String, Object> result = new HashMap<>();
+        String invalid = validateBatch(operations);
+        if (invalid != null) {
+            result.put("success", false);
+            result.put("message", invalid);
+            return result;
+        }
+
+        int count = operations.size();
+        List<Map<String, Object>> results = new ArrayList<>(Collections.nCopies(count, (Map<String, Object>) null));
+        BatchStarts starts = new BatchStarts(count);
+        int allocated = 0;
+        int freed = 0;
+        int i = 0;
+        while (i < count) {
+            if (!operations.get(i).isAllocate()) {
+                BatchOperation operation = operations.get(i);
+                Map<String, Object> outcome = batchFree(operation.getRef() != null
+                        ? starts.get(operation.getRef()) : operation.getBlockId());
+                if (Boolean.TRUE.equals(outcome.get("success"))) {
+                    starts.released((Integer) outcome.get("blockId"));
+                    freed++;
+                }
+                outcome.put("index", i);
+                results.set(i, outcome);
+                i++;
+                continue;
+            }
+
+            int end = i;
+            while (end < count && operations.get(end).isAllocate()) {
+                end++;
+            }
+            List<Integer> order = new ArrayList<>(end - i);
+            for (int index = i; index < end; index++) {
+                order.add(index);
+            }
+            if (sortSizes) {
+                order.sort((a, b) -> Integer.compare(operations.get(b).getSize(), operations.get(a).getSize()));
+            }
+            boolean reclaimed = false;
+            for (int placement = 0; placement < order.size(); placement++) {
+                int index = order.get(placement);
+                Map<String, Object> outcome = batchAllocate(operations.get(index), starts, index, !reclaimed);
+                if (Boolean.TRUE.equals(outcome.get("success"))) {
+                    allocated++;
+                }
+                reclaimed |= Boolean.TRUE.equals(outcome.get("reclaimed"));
+                outcome.put("index", index);
+                outcome.put("placement", i + placement);
+                results.set(index, outcome);
+            }
+            i = end;
+        }
+        events.record(StateEvents.Type.ALLOCATE, allocated);
+        events.record(StateEvents.Type.FREE, freed);
+
+        int failed = count - allocated - freed;
+        result.put("success", true);
+        result.put("message", "Applied " + count + " operations: " + allocated + " allocated, "
+                + freed + " freed, " + failed + " failed");
+        result.put("allocated", allocated);
+        result.put("freed", freed);
+        result.put("failed", failed);
+        result.put("sortSizes", sortSizes);
+        result.put("results", results);
+        putChanges(result, since);
+        result.put("stats", getMemoryStatistics());
+        return result;
+    }
+
+    // Rejects the whole batch before anything is applied; returns null when every operation is well formed.
+    private String validateBatch(List<BatchOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            return "Batch has no operations";
+        }
+        if (operations.size() > maxBatchOperations) {
+            return "Batch has " + operations.size() + " operations, more than the limit of " + maxBatchOperations;
+        }
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation operation = operations.get(i);
+            if (operation == null) {
+                return "Operation " + i + " is empty";
+            }
+            if (operation.isAllocate()) {
+                if (operation.getAlgorithm() == null || !AllocationEngine.isSupported(operation.getAlgorithm())) {
+                    return "Operation " + i + ": unknown allocation algorithm: " + operation.getAlgorithm();
+                }
+                if (operation.getSize() <= 0) {
+                    return "Operation " + i + ": size must be positive";
+                }
+                if (operation.getProcessId() < AllocationTable.NO_OWNER) {
+                    return "Operation " + i + ": process id must be positive, or 0 for no owner";
+                }
+            } else if (operation.isFree()) {
+                Integer ref = operation.getRef();
+                if (ref == null && operation.getBlockId() == null) {
+                    return "Operation " + i + ": a free needs a blockId or a ref";
+                }
+                if (ref != null && (ref < 0 || ref >= i || !operations.get(ref).isAllocate())) {
+                    return "Operation " + i + ": ref must name an earlier allocate";
+                }
+            } else {
+                return "Operation " + i + ": unknown type " + operation.getType() + " (allocate or free)";
+            }
+        }
+        return null;
+    }
+
+    private Map<String, Object> batchAllocate(BatchOperation operation, BatchStarts starts, int index,
+                                              boolean mayReclaim) {
+        totalAllocations.increment();
+        touch(operation.getProcessId());
+        Map<String, Object> outcome = new HashMap<>();
+        outcome.put("type", "allocate");
+        long startTime = System.nanoTime();
+        int start = memory.allocatePinned(operation.getSize(), operation.getAlgorithm(), operation.getProcessId());
+        if (start == -1 && mayReclaim) {
+            outcome.put("reclaimed", true);
+            start = reclaimAndAllocate(operation.getSize(), operation.getAlgorithm(), operation.getProcessId());
+        }
+        metrics.recordAllocation(operation.getAlgorithm(), start != -1, System.nanoTime() - startTime);
+
+        if (start == -1) {
+            outcome.put("success", false);
+            outcome.put("message", "No suitable memory block found");
+            return outcome;
+        }
+        successfulAllocations.increment();
+        // The start is returned as a blockId, so the allocation stays pinned and frees by ref find it there.
+        starts.allocated(index, start);
+        track(start, false);
+        outcome.put("success", true);
+        outcome.put("blockId", start);
+        return outcome;
+    }
+
+    private Map<String, Object> batchFree(int blockId) {
+        Map<String, Object> outcome = new HashMap<>();
+        outcome.put("type", "free");
+        if (blockId == -1) {
+            outcome.put("success", false);
+            outcome.put("message", "The referenced allocation failed or was already freed");
+            return outcome;
+        }
+        long startTime = System.nanoTime();
+        AllocationHandle handle = memory.free(blockId);
+        if (handle != null) {
+            untrack(handle.getStart());
+        }
+        metrics.recordDeallocation("block", handle != null, System.nanoTime() - startTime);
+        if (handle == null) {
+            outcome.put("success", false);
+            outcome.put("message", "No allocation starts at block " + blockId);
+            return outcome;
+        }
+        outcome.put("success", true);
+        outcome.put("blockId", handle.getStart());
+        outcome.put("length", handle.getLength());
+        return outcome;
+    }
+
+    public Map<String, Object> deallocateProcess(int processId) {
+        if (processId <= AllocationTable.NO_OWNER) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "Process id must be positive: " + processId);
+            return result;
+        }
+        long since = changeLog.version();
+        long startTime = System.nanoTime();
+        List<AllocationHandle> handles = freeOwnerTracked(processId);
+        metrics.recordDeallocation("process", true, System.nanoTime() - startTime);
+        int blocksFreed = 0;
+        for (AllocationHandle handle : handles) {
+            blocksFreed += handle.getLength();
+        }
+        events.record(StateEvents.Type.FREE, handles.size());
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("message", "Released " + handles.size() + " allocations of process " + processId);
+        result.put("allocationsFreed", handles.size());
+        result.put("blocksFreed", blocksFreed);
+        putChanges(result, since);
         result.put("stats", getMemoryStatistics());
         return result;
     }
 
     public Map<String, Object> resetMemory() {
-        initializeMemory();
-        totalAllocations = 0;
-        successfulAllocations = 0;
-        gcCollections = 0;
+        return resetMemory(poolBlocks);
+    }
+
+    public Map<String, Object> resetMemory(int blocks) {
+        long since = changeLog.version();
+        if (blocks <= 0 || blocks > maxPoolBlocks) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "Pool size must be between 1 and " + maxPoolBlocks + " blocks");
+            return result;
+        }
+        synchronized (this) {
+            // The pages of this service's processes go with them, so their names can be created again
+            for (Process process : processes) {
+                swappingService.removeProcess(process.getName());
+            }
+            poolBlocks = blocks;
+            initializeMemory();
+            totalAllocations.reset();
+            successfulAllocations.reset();
+            gcCollections.reset();
+            gcPauseNanos.reset();
+            lastGcPauseNanos = 0;
+        }
+        events.record(StateEvents.Type.RESET);
 
         Map<String, Object> result = new HashMap<>();
         result.put("success", true);
         result.put("message", "Memory reset successfully");
-        result.put("memoryBlocks", memoryBlocks);
+        putChanges(result, since);
         result.put("stats", getMemoryStatistics());
         return result;
     }
@@ -188,21 +903,35 @@ public class MemoryService {
         int pageFaults = 0;
         int pageHits = 0;
 
-        for (PageFrame frame : pageFrames) {
-            frame.setPageNumber(-1);
+        long startTime = System.nanoTime();
+        // Each run fills its own frames and publishes them when done, so concurrent runs cannot interleave.
+        List<PageFrame> frames = new ArrayList<>();
+        for (int i = 0; i < pageFrames.size(); i++) {
+            frames.add(new PageFrame(i, -1));
         }
 
         switch (algorithm.toLowerCase()) {
             case "fifo":
-                pageFaults = simulateFIFO(pageSequence);
+                pageFaults = simulateFIFO(frames, pageSequence);
                 break;
             case "lru":
-                pageFaults = simulateLRU(pageSequence);
+                pageFaults = simulateLRU(frames, pageSequence);
                 break;
             case "optimal":
-                pageFaults = simulateOptimal(pageSequence);
+                pageFaults = simulateOptimal(frames, pageSequence);
+                break;
+            case "clock":
+            case "second-chance":
+            case "lfu":
+            case "arc":
+            case "2q":
+                pageFaults = simulate(PageReplacementPolicies.create(algorithm, frames.size(), null), frames, pageSequence);
                 break;
         }
+        pageFrames = frames;
+        if (PageReplacementPolicies.isSupported(algorithm)) {
+            metrics.recordPageReplacement(algorithm, System.nanoTime() - startTime, pageSequence.length, pageFaults);
+        }
 
         pageHits = pageSequence.length - pageFaults;
         double hitRatio = (double) pageHits / pageSequence.length * 100;
@@ -212,196 +941,310 @@ public class MemoryService {
         result.put("pageFaults", pageFaults);
         result.put("pageHits", pageHits);
         result.put("hitRatio", Math.round(hitRatio));
-        result.put("pageFrames", pageFrames);
+        result.put("pageFrames", frames);
         return result;
     }
 
-    private int simulateFIFO(int[] pageSequence) {
-        int pageFaults = 0;
-        int frameIndex = 0;
-
-        for (int page : pageSequence) {
-            boolean found = false;
-            for (PageFrame frame : pageFrames) {
-                if (frame.getPageNumber() == page) {
-                    found = true;
-                    break;
-                }
-            }
+    private int simulateFIFO(List<PageFrame> frames, int[] pageSequence) {
+        return simulate(new FifoPolicy(frames.size()), frames, pageSequence);
+    }
 
-            if (!found) {
-                pageFrames.get(frameIndex).setPageNumber(page);
-                frameIndex = (frameIndex + 1) % pageFrames.size();
-                pageFaults++;
-            }
-        }
+    private int simulateLRU(List<PageFrame> frames, int[] pageSequence) {
+        return simulate(new LruPolicy(frames.size()), frames, pageSequence);
+    }
 
-        return pageFaults;
+    private int simulateOptimal(List<PageFrame> frames, int[] pageSequence) {
+        return simulate(new OptimalPolicy(frames.size(), new ReferenceTrace(pageSequence)), frames, pageSequence);
     }
 
-    private int simulateLRU(int[] pageSequence) {
+    private int simulate(PageReplacementPolicy policy, List<PageFrame> frames, int[] pageSequence) {
         int pageFaults = 0;
-        Map<Integer, Integer> lastUsed = new HashMap<>();
-
-        for (int i = 0; i < pageSequence.length; i++) {
-            int page = pageSequence[i];
-            boolean found = false;
-
-            for (PageFrame frame : pageFrames) {
-                if (frame.getPageNumber() == page) {
-                    found = true;
-                    lastUsed.put(page, i);
-                    break;
-                }
-            }
-
-            if (!found) {
-                int replaceIndex = 0;
-                if (pageFrames.stream().anyMatch(f -> f.getPageNumber() == -1)) {
-                    // Find empty frame
-                    for (int j = 0; j < pageFrames.size(); j++) {
-                        if (pageFrames.get(j).getPageNumber() == -1) {
-                            replaceIndex = j;
-                            break;
-                        }
-                    }
-                } else {
-                    // Find LRU page
-                    int minTime = Integer.MAX_VALUE;
-                    for (int j = 0; j < pageFrames.size(); j++) {
-                        int framePageNumber = pageFrames.get(j).getPageNumber();
-                        int time = lastUsed.getOrDefault(framePageNumber, -1);
-                        if (time < minTime) {
-                            minTime = time;
-                            replaceIndex = j;
-                        }
-                    }
-                }
-
-                pageFrames.get(replaceIndex).setPageNumber(page);
-                lastUsed.put(page, i);
+        for (int page : pageSequence) {
+            if (!policy.access(page)) {
                 pageFaults++;
             }
         }
 
+        for (int i = 0; i < frames.size(); i++) {
+            frames.get(i).setPageNumber(policy.pageAt(i));
+        }
         return pageFaults;
     }
 
-    private int simulateOptimal(int[] pageSequence) {
-        int pageFaults = 0;
+    public Map<String, Object> runGarbageCollection() {
+        return runGarbageCollection("full");
+    }
 
-        for (int i = 0; i < pageSequence.length; i++) {
-            int page = pageSequence[i];
-            boolean found = false;
+    // Mark-sweep over the heap graph: only objects unreachable from the roots are freed.
+    public Map<String, Object> runGarbageCollection(String mode) {
+        long since = changeLog.version();
+        GcMode gcMode;
+        try {
+            gcMode = GcMode.from(mode);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            return result;
+        }
 
-            for (PageFrame frame : pageFrames) {
-                if (frame.getPageNumber() == page) {
-                    found = true;
-                    break;
-                }
-            }
+        CollectionResult collection = collect(gcMode);
 
-            if (!found) {
-                int replaceIndex = 0;
-                if (pageFrames.stream().anyMatch(f -> f.getPageNumber() == -1)) {
-                    // Find empty frame
-                    for (int j = 0; j < pageFrames.size(); j++) {
-                        if (pageFrames.get(j).getPageNumber() == -1) {
-                            replaceIndex = j;
-                            break;
-                        }
-                    }
-                } else {
-                    // Find optimal page to replace
-                    int farthest = -1;
-                    for (int j = 0; j < pageFrames.size(); j++) {
-                        int framePageNumber = pageFrames.get(j).getPageNumber();
-                        int nextUse = pageSequence.length;
-
-                        for (int k = i + 1; k < pageSequence.length; k++) {
-                            if (pageSequence[k] == framePageNumber) {
-                                nextUse = k;
-                                break;
-                            }
-                        }
-
-                        if (nextUse > farthest) {
-                            farthest = nextUse;
-                            replaceIndex = j;
-                        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("mode", gcMode.name().toLowerCase());
+        result.put("objectsCollected", collection.getObjectsReclaimed());
+        result.put("objectsVisited", collection.getObjectsVisited());
+        result.put("objectsPromoted", collection.getPromoted());
+        result.put("blocksReclaimed", collection.getBlocksReclaimed());
+        result.put("bytesReclaimed", collection.getBlocksReclaimed() * blockBytes);
+        result.put("pauseMicros", collection.getPauseNanos() / 1000);
+        result.put("gcCollections", gcCollections.sum());
+        putChanges(result, since);
+        result.put("stats", getMemoryStatistics());
+        return result;
+    }
+
+    // Simulated mutator: allocates small objects that hang off random live objects (a few become roots)
+    // and overwrites references, so most new objects die young. A failed allocation triggers a young collection.
+    public Map<String, Object> mutateHeap(int allocations, long seed) {
+        if (allocations < 0 || allocations > maxMutations) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "Allocations must be between 0 and " + maxMutations);
+            return result;
+        }
+        long since = changeLog.version();
+        Random random = new Random(seed);
+        int created = 0;
+        int referencesDropped = 0;
+        int collections = 0;
+
+        synchronized (gcLock) {
+            applyHeapUpdates();
+            AllocationEngine memory = this.memory;
+            ObjectGraph graph = heapGraph;
+            for (int i = 0; i < allocations; i++) {
+                int size = 1 + random.nextInt(4);
+                int start = memory.allocate(size, "first", AllocationTable.NO_OWNER);
+                if (start == -1) {
+                    collect(GcMode.YOUNG);
+                    collections++;
+                    start = memory.allocate(size, "first", AllocationTable.NO_OWNER);
+                    if (start == -1) {
+                        break;
                     }
                 }
+                int parent = graph.randomObject(random);
+                graph.add(start, size, parent == -1 || random.nextInt(10) == 0);
+                if (parent != -1) {
+                    graph.addReference(parent, start);
+                }
+                created++;
 
-                pageFrames.get(replaceIndex).setPageNumber(page);
-                pageFaults++;
+                if (random.nextInt(10) < 7) {
+                    int victim = graph.randomObject(random);
+                    if (victim != -1 && graph.dropRandomReference(victim, random)) {
+                        referencesDropped++;
+                    }
+                }
             }
         }
 
-        return pageFaults;
+        events.record(StateEvents.Type.ALLOCATE, created);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("message", "Created " + created + " objects");
+        result.put("objectsCreated", created);
+        result.put("referencesDropped", referencesDropped);
+        result.put("collectionsTriggered", collections);
+        putChanges(result, since);
+        result.put("stats", getMemoryStatistics());
+        return result;
     }
 
-    public Map<String, Object> runGarbageCollection() {
-        gcCollections++;
-        int objectsCollected = 0;
-
-        Random random = new Random();
-        for (MemoryBlock block : memoryBlocks) {
-            if (!block.isFree() && random.nextDouble() < 0.3) {
-                block.setFree(true);
-                objectsCollected++;
-            }
+    public Map<String, Object> setRoot(int blockId, boolean root) {
+        boolean updated;
+        synchronized (gcLock) {
+            applyHeapUpdates();
+            updated = heapGraph.setRoot(blockId, root);
         }
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", updated);
+        result.put("message", updated ? "Block " + blockId + (root ? " is now a root" : " is no longer a root")
+                : "Block " + blockId + " is not the start of a heap object");
+        return result;
+    }
 
+    public Map<String, Object> updateReference(int fromBlock, int toBlock, boolean add) {
+        boolean updated;
+        synchronized (gcLock) {
+            applyHeapUpdates();
+            updated = add ? heapGraph.addReference(fromBlock, toBlock) : heapGraph.removeReference(fromBlock, toBlock);
+        }
         Map<String, Object> result = new HashMap<>();
-        result.put("success", true);
-        result.put("objectsCollected", objectsCollected);
-        result.put("gcCollections", gcCollections);
-        result.put("memoryBlocks", memoryBlocks);
-        result.put("stats", getMemoryStatistics());
+        result.put("success", updated);
+        result.put("message", updated ? (add ? "Added" : "Removed") + " reference " + fromBlock + " -> " + toBlock
+                : "No such objects or reference: " + fromBlock + " -> " + toBlock);
         return result;
     }
 
+    private CollectionResult collect(GcMode mode) {
+        CollectionResult collection;
+        synchronized (gcLock) {
+            applyHeapUpdates();
+            AllocationEngine memory = this.memory;
+            // Only settled allocations: a start freed since the last update may already be reused
+            collection = collector.collect(heapGraph, mode, Math.max(1, tenureAge),
+                    start -> memory.freeSettled(start) != null);
+        }
+        gcCollections.increment();
+        events.record(StateEvents.Type.GC);
+        metrics.recordGc(mode.name().toLowerCase(), collection.getPauseNanos(), collection.getBlocksReclaimed());
+        gcPauseNanos.add(collection.getPauseNanos());
+        lastGcPauseNanos = collection.getPauseNanos();
+        return collection;
+    }
+
+    // Every input is either part of the pool snapshot, a heap count, or a counter that only grows between
+    // resets, so an unchanged stamp means the cached map is still exact and is returned as is.
     public Map<String, Object> getMemoryStatistics() {
-        long allocatedBlocks = memoryBlocks.stream().filter(b -> !b.isFree()).count();
-        long freeBlocks = memoryBlocks.stream().filter(MemoryBlock::isFree).count();
-        double utilizationPercentage = (double) allocatedBlocks / memoryBlocks.size() * 100;
+        AllocationEngine memory = this.memory;
+        PoolStatistics pool = memory.poolStatistics();
+        ObjectGraph heap = heapGraph;
+        int heapObjects = heap.objectCount();
+        int heapRoots = heap.rootCount();
+        int oldObjects = heap.oldCount();
+        int rememberedSet = heap.rememberedSetSize();
+        Compactor compactor = memory.compactor();
+        long counters = changeLog.version() + totalAllocations.sum() + successfulAllocations.sum()
+                + processes.size() + gcCollections.sum() + gcPauseNanos.sum() + compactor.cycles()
+                + compactor.totalBlocksMoved() + backgroundReclaims.sum() + directReclaims.sum()
+                + reclaimedBlocks.sum() + swappedOutProcesses.sum();
+        CachedStatistics cached = statistics;
+        if (cached != null && cached.matches(pool, heap, heapObjects, heapRoots, oldObjects, rememberedSet, counters)) {
+            return cached.values;
+        }
+
+        BuddyAllocator buddy = memory.getBuddy();
+        SlabAllocator slab = memory.getSlab();
+        long totalAllocations = this.totalAllocations.sum();
+        long successfulAllocations = this.successfulAllocations.sum();
+        int allocatedBlocks = memory.allocatedBlocks();
+        int freeBlocks = memory.freeBlocks();
+        double utilizationPercentage = (double) allocatedBlocks / pool.capacity() * 100;
         double successRate = totalAllocations > 0 ? (double) successfulAllocations / totalAllocations * 100 : 0;
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("allocatedBlocks", allocatedBlocks);
         stats.put("freeBlocks", freeBlocks);
-        stats.put("totalBlocks", memoryBlocks.size());
+        stats.put("totalBlocks", pool.capacity());
+        stats.put("arenas", pool.arenaCount());
+        stats.put("freeHoles", pool.holeCount());
+        stats.put("largestFreeHole", pool.largestHole());
+        stats.put("freeHoleSizes", holeSizes(pool));
+        stats.put("liveAllocations", memory.allocations().size());
+        stats.put("fragmentationIndex", round(pool.fragmentationIndex()));
+        stats.put("compactionCycles", compactor.cycles());
+        stats.put("compactedBlocks", compactor.totalBlocksMoved());
+        if (buddy != null) {
+            stats.put("buddyRequestedBlocks", buddy.requestedBlocks());
+            stats.put("buddyGrantedBlocks", buddy.grantedBlocks());
+            stats.put("buddyInternalFragmentation", buddy.internalFragmentation());
+            stats.put("buddySplits", buddy.splits());
+            stats.put("buddyMerges", buddy.merges());
+        }
+        if (slab != null) {
+            stats.put("slab", slab.getStatistics());
+        }
         stats.put("utilizationPercentage", Math.round(utilizationPercentage));
         stats.put("totalAllocations", totalAllocations);
         stats.put("successfulAllocations", successfulAllocations);
         stats.put("successRate", Math.round(successRate));
         stats.put("activeProcesses", processes.size());
-        stats.put("gcCollections", gcCollections);
-        return stats;
+        stats.put("gcCollections", gcCollections.sum());
+        stats.put("heapObjects", heapObjects);
+        stats.put("heapRoots", heapRoots);
+        stats.put("youngObjects", heapObjects - oldObjects);
+        stats.put("oldObjects", oldObjects);
+        stats.put("rememberedSet", rememberedSet);
+        stats.put("lastGcPauseMicros", lastGcPauseNanos / 1000);
+        stats.put("totalGcPauseMicros", gcPauseNanos.sum() / 1000);
+        stats.put("reclaimPolicy", victimPolicy.name().toLowerCase());
+        stats.put("backgroundReclaims", backgroundReclaims.sum());
+        stats.put("directReclaims", directReclaims.sum());
+        stats.put("reclaimedBlocks", reclaimedBlocks.sum());
+        stats.put("swappedOutProcesses", swappedOutProcesses.sum());
+
+        cached = new CachedStatistics(pool, heap, heapObjects, heapRoots, oldObjects, rememberedSet, counters,
+                Collections.unmodifiableMap(stats));
+        statistics = cached;
+        return cached.values;
+    }
+
+    // Holes per power-of-two size class: {minBlocks, maxBlocks, holes}.
+    private static List<Map<String, Object>> holeSizes(PoolStatistics pool) {
+        List<Map<String, Object>> sizes = new ArrayList<>();
+        for (int sizeClass = 0; sizeClass < pool.sizeClassLimit(); sizeClass++) {
+            Map<String, Object> size = new HashMap<>();
+            size.put("minBlocks", 1L << sizeClass);
+            size.put("maxBlocks", (1L << (sizeClass + 1)) - 1);
+            size.put("holes", pool.holesInSizeClass(sizeClass));
+            sizes.add(size);
+        }
+        return sizes;
     }
+
     public List<MemoryBlock> getMemoryStatus() {
-        return memoryBlocks; // assuming this is your list of RAM blocks
+        return getMemoryBlocks();
     }
 
     public String allocateMemory(String processId) {
         return "Process " + processId + " allocated.";
     }
 
-    public Map<String, Object> createProcess(String name, int size) {
+    // Under the priority victim policy, lower priorities are swapped out first.
+    public Map<String, Object> createProcess(String name, int size, int priority) {
+        long since = changeLog.version();
         Map<String, Object> result = new HashMap<>();
 
         try {
+            if (size <= 0) {
+                result.put("success", false);
+                result.put("message", "Process size must be positive");
+                return result;
+            }
             Process newProcess = new Process();
-            newProcess.setId(nextProcessId++);
+            newProcess.setId(nextProcessId.getAndIncrement());
             newProcess.setName(name);
             newProcess.setSize(size);
             newProcess.setStatus("Ready");
-
+            newProcess.setPriority(priority);
+
+            totalAllocations.increment();
+            long startTime = System.nanoTime();
+            int start = allocateWithReclaim(size, "first", newProcess.getId());
+            metrics.recordAllocation("first", start != -1, System.nanoTime() - startTime);
+            if (start == -1) {
+                result.put("success", false);
+                result.put("message", "Not enough memory for " + size + " blocks, even after reclaim");
+                return result;
+            }
+            successfulAllocations.increment();
+            track(start, true);
+            try {
+                loadPages(newProcess);
+            } catch (RuntimeException e) {
+                freeOwnerTracked(newProcess.getId());
+                throw e;
+            }
             processes.add(newProcess);
-            swappingService.addProcessToRam(name);
+            events.record(StateEvents.Type.PROCESS);
 
             result.put("success", true);
             result.put("processes", processes);
+            putChanges(result, since);
             result.put("message", "Process created and added to RAM");
 
         } catch (Exception e) {
@@ -412,4 +1255,77 @@ public class MemoryService {
         return result;
     }
 
+    // Pages need RAM frames as well as pool blocks; when the frames run out, resident processes are swapped
+    // out for them just as for blocks (a process has a page per block), and loading fails only if that
+    // frees too few.
+    private void loadPages(Process process) {
+        try {
+            swappingService.addProcessToRam(process.getName(), process.getSize());
+        } catch (IllegalStateException e) {
+            int missing = process.getSize() - swappingService.freeRamFrames();
+            if (missing > 0) {
+                directReclaims.increment();
+                reclaim(missing, process.getId());
+            }
+            swappingService.addProcessToRam(process.getName(), process.getSize());
+        }
+    }
+
+    // Start of each allocation a batch has made, so a later free by ref finds it.
+    private static final class BatchStarts {
+        private final int[] startByOperation;
+        private final Map<Integer, Integer> operationByStart = new HashMap<>();
+
+        BatchStarts(int operations) {
+            startByOperation = new int[operations];
+            Arrays.fill(startByOperation, -1);
+        }
+
+        void allocated(int operation, int start) {
+            startByOperation[operation] = start;
+            operationByStart.put(start, operation);
+        }
+
+        int get(int operation) {
+            return startByOperation[operation];
+        }
+
+        void released(int start) {
+            Integer operation = operationByStart.remove(start);
+            if (operation != null) {
+                startByOperation[operation] = -1;
+            }
+        }
+
+    }
+
+    private static final class CachedStatistics {
+        private final PoolStatistics pool;
+        private final ObjectGraph heap;
+        private final int heapObjects;
+        private final int heapRoots;
+        private final int oldObjects;
+        private final int rememberedSet;
+        private final long counters;
+        private final Map<String, Object> values;
+
+        CachedStatistics(PoolStatistics pool, ObjectGraph heap, int heapObjects, int heapRoots, int oldObjects,
+                         int rememberedSet, long counters, Map<String, Object> values) {
+            this.pool = pool;
+            this.heap = heap;
+            this.heapObjects = heapObjects;
+            this.heapRoots = heapRoots;
+            this.oldObjects = oldObjects;
+            this.rememberedSet = rememberedSet;
+            this.counters = counters;
+            this.values = values;
+        }
+
+        boolean matches(PoolStatistics pool, ObjectGraph heap, int heapObjects, int heapRoots, int oldObjects,
+                        int rememberedSet, long counters) {
+            return pool == this.pool && heap == this.heap && heapObjects == this.heapObjects
+                    && heapRoots == this.heapRoots && oldObjects == this.oldObjects
+                    && rememberedSet == this.rememberedSet && counters == this.counters;
+        }
+    }
 }
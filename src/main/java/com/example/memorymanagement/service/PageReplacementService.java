@@ -0,0 +1,231 @@
+package com.example.memorymanagement.service;
+
+import com.example.memorymanagement.service.paging.MissRatioCurve;
+import com.example.memorymanagement.service.paging.PageReplacementPolicies;
+import com.example.memorymanagement.service.paging.PageReplacementPolicy;
+import com.example.memorymanagement.service.paging.ReferenceTrace;
+import com.example.memorymanagement.service.paging.TraceSimulation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+@Service
+public class PageReplacementService {
+    private static final int MAX_COMPARISONS = 1024;
+    private static final int MAX_CURVE_POINTS = 1000;
+
+    private final ForkJoinPool comparisonPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private final MemoryMetrics metrics;
+    // Policies size their tables by the frame count, so it is bounded like every other request size.
+    private final int maxFrames;
+
+    public PageReplacementService(MemoryMetrics metrics, @Value("${memory.paging.max-frames:65536}") int maxFrames) {
+        this.metrics = metrics;
+        this.maxFrames = maxFrames;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        comparisonPool.shutdownNow();
+    }
+
+    public Map<String, Object> simulateTrace(InputStream trace, int frames, String algorithm) {
+        Map<String, Object> result = new HashMap<>();
+        if (!PageReplacementPolicies.isSupported(algorithm)) {
+            result.put("success", false);
+            result.put("message", "Unknown page replacement algorithm: " + algorithm);
+            return result;
+        }
+        if (frames <= 0 || frames > maxFrames) {
+            result.put("success", false);
+            result.put("message", "Frame count must be between 1 and " + maxFrames);
+            return result;
+        }
+
+        try {
+            long startTime = System.nanoTime();
+            TraceSimulation simulation;
+            if (PageReplacementPolicies.requiresFullTrace(algorithm)) {
+                ReferenceTrace fullTrace = ReferenceTrace.read(trace);
+                PageReplacementPolicy policy = PageReplacementPolicies.create(algorithm, frames, fullTrace);
+                simulation = new TraceSimulation(algorithm, policy);
+                fullTrace.forEach(simulation);
+            } else {
+                PageReplacementPolicy policy = PageReplacementPolicies.create(algorithm, frames, null);
+                simulation = new TraceSimulation(algorithm, policy);
+                ReferenceTrace.forEach(trace, simulation);
+            }
+
+            long elapsed = System.nanoTime() - startTime;
+            metrics.recordPageReplacement(algorithm, elapsed, simulation.getReferences(), simulation.getPageFaults());
+            result.putAll(simulation.toResult());
+            result.put("elapsedMillis", elapsed / 1_000_000);
+            result.put("success", true);
+        } catch (IOException | IllegalArgumentException e) {
+            result.put("success", false);
+            result.put("message", e.getMessage());
+        }
+        return result;
+    }
+
+    // One pass over the trace yields the LRU hit ratio for every frame count up to maxFrames (all distinct
+    // pages, up to the frame limit, when maxFrames is 0). Longer curves are sampled at evenly spaced frame
+    // counts, always ending at the largest.
+    public Map<String, Object> missRatioCurve(InputStream trace, int maxFrames, double sampleRate) {
+        Map<String, Object> result = new HashMap<>();
+        if (maxFrames < 0 || maxFrames > this.maxFrames) {
+            result.put("success", false);
+            result.put("message", "Frame count must be between 0 and " + this.maxFrames);
+            return result;
+        }
+
+        try {
+            long startTime = System.nanoTime();
+            MissRatioCurve curve = new MissRatioCurve(sampleRate);
+            ReferenceTrace.forEach(trace, curve);
+
+            int frames = maxFrames > 0 ? maxFrames : (int) Math.max(1, Math.min(this.maxFrames, curve.getDistinctPages()));
+            double[] hitRatios = curve.hitRatios(frames);
+            int pointCount = Math.min(frames, MAX_CURVE_POINTS);
+            List<Map<String, Object>> points = new ArrayList<>(pointCount);
+            for (int i = 1; i <= pointCount; i++) {
+                int pointFrames = (int) ((long) i * frames / pointCount);
+                Map<String, Object> point = new HashMap<>();
+                point.put("frames", pointFrames);
+                point.put("hitRatio", Math.round(hitRatios[pointFrames - 1] * 100) / 100.0);
+                point.put("missRatio", Math.round((100 - hitRatios[pointFrames - 1]) * 100) / 100.0);
+                points.add(point);
+            }
+
+            result.put("algorithm", "lru");
+            result.put("references", curve.getReferences());
+            result.put("sampledReferences", curve.getSampledReferences());
+            result.put("sampleRate", sampleRate);
+            result.put("distinctPages", curve.getDistinctPages());
+            result.put("coldMisses", curve.getColdMisses());
+            result.put("maxFrames", frames);
+            result.put("curve", points);
+            result.put("elapsedMillis", (System.nanoTime() - startTime) / 1_000_000);
+            result.put("success", true);
+        } catch (IOException | IllegalArgumentException e) {
+            result.put("success", false);
+            result.put("message", e.getMessage());
+        }
+        return result;
+    }
+
+    // Every (algorithm, frames) pair gets its own policy over the shared, read-only trace,
+    // so the runs are independent and can execute in parallel.
+    public Map<String, Object> compare(InputStream trace, List<String> algorithms, List<Integer> frameCounts) {
+        Map<String, Object> result = new HashMap<>();
+        for (String algorithm : algorithms) {
+            if (!PageReplacementPolicies.isSupported(algorithm)) {
+                result.put("success", false);
+                result.put("message", "Unknown page replacement algorithm: " + algorithm);
+                return result;
+            }
+        }
+        for (int frames : frameCounts) {
+            if (frames <= 0 || frames > maxFrames) {
+                result.put("success", false);
+                result.put("message", "Frame count must be between 1 and " + maxFrames);
+                return result;
+            }
+        }
+        if (algorithms.isEmpty() || frameCounts.isEmpty()) {
+            result.put("success", false);
+            result.put("message", "At least one algorithm and one frame count are required");
+            return result;
+        }
+        if ((long) algorithms.size() * frameCounts.size() > MAX_COMPARISONS) {
+            result.put("success", false);
+            result.put("message", "At most " + MAX_COMPARISONS + " combinations can be compared at once");
+            return result;
+        }
+
+        try {
+            long startTime = System.nanoTime();
+            ReferenceTrace fullTrace = ReferenceTrace.read(trace);
+
+            List<ComparisonRun> runs = new ArrayList<>();
+            for (String algorithm : algorithms) {
+                for (int frames : frameCounts) {
+                    runs.add(new ComparisonRun(fullTrace, algorithm.toLowerCase(), frames));
+                }
+            }
+            comparisonPool.invoke(new ComparisonBatch(runs));
+
+            List<List<Map<String, Object>>> matrix = new ArrayList<>();
+            int run = 0;
+            for (int i = 0; i < algorithms.size(); i++) {
+                List<Map<String, Object>> row = new ArrayList<>();
+                for (int j = 0; j < frameCounts.size(); j++) {
+                    row.add(runs.get(run++).join());
+                }
+                matrix.add(row);
+            }
+
+            result.put("algorithms", algorithms);
+            result.put("frames", frameCounts);
+            result.put("references", fullTrace.length());
+            result.put("results", matrix);
+            result.put("parallelism", comparisonPool.getParallelism());
+            result.put("elapsedMillis", (System.nanoTime() - startTime) / 1_000_000);
+            result.put("success", true);
+        } catch (IOException | IllegalArgumentException e) {
+            result.put("success", false);
+            result.put("message", e.getMessage());
+        }
+        return result;
+    }
+
+    private static class ComparisonBatch extends RecursiveTask<Void> {
+        private final Collection<ComparisonRun> runs;
+
+        ComparisonBatch(Collection<ComparisonRun> runs) {
+            this.runs = runs;
+        }
+
+        @Override
+        protected Void compute() {
+            ForkJoinTask.invokeAll(runs);
+            return null;
+        }
+    }
+
+    private static class ComparisonRun extends RecursiveTask<Map<String, Object>> {
+        private final ReferenceTrace trace;
+        private final String algorithm;
+        private final int frames;
+
+        ComparisonRun(ReferenceTrace trace, String algorithm, int frames) {
+            this.trace = trace;
+            this.algorithm = algorithm;
+            this.frames = frames;
+        }
+
+        @Override
+        protected Map<String, Object> compute() {
+            long startTime = System.nanoTime();
+            TraceSimulation simulation = new TraceSimulation(algorithm,
+                    PageReplacementPolicies.create(algorithm, frames, trace));
+            trace.forEach(simulation);
+
+            Map<String, Object> cell = simulation.toResult();
+            cell.put("elapsedMillis", (System.nanoTime() - startTime) / 1_000_000);
+            return cell;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.memorymanagement.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Counts state-changing operations as they happen. The stream coalesces them: each frame carries how
+// many of each kind happened since the subscriber's previous frame, not one message per operation.
+@Service
+public class StateEvents {
+    public enum Type {
+        ALLOCATE, FREE, GC, COMPACT, RESET, PROCESS, SWAP_OUT, SWAP_IN;
+
+        public String key() {
+            switch (this) {
+                case SWAP_OUT:
+                    return "swapOut";
+                case SWAP_IN:
+                    return "swapIn";
+                default:
+                    return name().toLowerCase();
+            }
+        }
+
+        public boolean changesSwap() {
+            return this == PROCESS || this == SWAP_OUT || this == SWAP_IN;
+        }
+    }
+
+    private static final Type[] TYPES = Type.values();
+
+    private final AtomicLongArray counts = new AtomicLongArray(TYPES.length);
+    private final AtomicLong sequence = new AtomicLong();
+
+    public void record(Type type) {
+        record(type, 1);
+    }
+
+    public void record(Type type, long count) {
+        if (count <= 0) {
+            return;
+        }
+        counts.addAndGet(type.ordinal(), count);
+        sequence.incrementAndGet();
+    }
+
+    // Bumped after every record, so an unchanged sequence means no counts moved.
+    public long sequence() {
+        return sequence.get();
+    }
+
+    public long[] counts() {
+        long[] snapshot = new long[TYPES.length];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    public static Type[] types() {
+        return TYPES.clone();
+    }
+}
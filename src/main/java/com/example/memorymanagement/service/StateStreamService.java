@@ -0,0 +1,266 @@
+package com.example.memorymanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Pushes memory and swap state to server-sent-event subscribers. Once per tick, every subscriber with
+// something new gets one frame: the blocks changed since its last frame, the operations counted since
+// then, the statistics and, when processes moved, the swap lists. A subscriber still writing its
+// previous frame is skipped, and the skipped changes fold into its next frame, so a slow client never
+// queues more than one frame. Clients that stay stuck are dropped.
+@Service
+public class StateStreamService {
+    private static final Logger log = LoggerFactory.getLogger(StateStreamService.class);
+
+    private final MemoryService memoryService;
+    private final SwappingService swappingService;
+    private final StateEvents events;
+    private final long tickMillis;
+    private final int maxClients;
+    private final int maxSkippedTicks;
+    private final long heartbeatMillis;
+    private final int senderThreads;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final LongAdder framesSent = new LongAdder();
+    private final LongAdder framesSkipped = new LongAdder();
+    private final LongAdder clientsDropped = new LongAdder();
+    private final LongAdder ticks = new LongAdder();
+    private ScheduledExecutorService ticker;
+    private ExecutorService senders;
+
+    public StateStreamService(MemoryService memoryService, SwappingService swappingService, StateEvents events,
+                              @Value("${memory.stream.tick-ms:200}") long tickMillis,
+                              @Value("${memory.stream.max-clients:256}") int maxClients,
+                              @Value("${memory.stream.max-skipped-ticks:150}") int maxSkippedTicks,
+                              @Value("${memory.stream.heartbeat-ms:15000}") long heartbeatMillis,
+                              @Value("${memory.stream.sender-threads:4}") int senderThreads) {
+        this.memoryService = memoryService;
+        this.swappingService = swappingService;
+        this.events = events;
+        this.tickMillis = tickMillis;
+        this.maxClients = maxClients;
+        this.maxSkippedTicks = maxSkippedTicks;
+        this.heartbeatMillis = heartbeatMillis;
+        this.senderThreads = senderThreads;
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger senderCount = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(senderThreads, task -> {
+            Thread thread = new Thread(task, "state-stream-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "state-stream-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    // Returns null when the subscriber limit is reached. The first frame is a full snapshot.
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxClients) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter, events.counts());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public Map<String, Object> getStreamStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("clients", subscribers.size());
+        stats.put("maxClients", maxClients);
+        stats.put("tickMillis", tickMillis);
+        stats.put("ticks", ticks.sum());
+        stats.put("framesSent", framesSent.sum());
+        stats.put("framesSkipped", framesSkipped.sum());
+        stats.put("clientsDropped", clientsDropped.sum());
+        return stats;
+    }
+
+    private void tick() {
+        try {
+            ticks.increment();
+            if (subscribers.isEmpty()) {
+                return;
+            }
+            long[] counts = events.counts();
+            long now = System.currentTimeMillis();
+            // Shared by every subscriber this tick: block changes are computed once per starting version.
+            Map<Long, Map<String, Object>> changesByVersion = new HashMap<>();
+            Map<String, Object> snapshot = null;
+            Map<String, Object> stats = null;
+            Map<String, Object> swapLists = null;
+            long currentVersion = -1;
+
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.sending.compareAndSet(false, true)) {
+                    framesSkipped.increment();
+                    if (++subscriber.skippedTicks > maxSkippedTicks) {
+                        drop(subscriber);
+                    }
+                    continue;
+                }
+                subscriber.skippedTicks = 0;
+                if (currentVersion == -1) {
+                    currentVersion = memoryService.getChangesVersion();
+                }
+                Map<String, Long> happened = difference(counts, subscriber.counts);
+                boolean fresh = !subscriber.snapshotSent;
+                if (!fresh && happened.isEmpty() && subscriber.version == currentVersion) {
+                    if (now - subscriber.lastSentMillis >= heartbeatMillis) {
+                        send(subscriber, SseEmitter.event().comment("keepalive"), subscriber.version, counts, now);
+                    } else {
+                        subscriber.sending.set(false);
+                    }
+                    continue;
+                }
+
+                Map<String, Object> frame = new HashMap<>();
+                Map<String, Object> changes;
+                if (fresh) {
+                    if (snapshot == null) {
+                        snapshot = memoryService.getMemorySnapshot();
+                    }
+                    changes = snapshot;
+                } else {
+                    changes = changesByVersion.get(subscriber.version);
+                    if (changes == null) {
+                        changes = memoryService.getChangesSince(subscriber.version);
+                        changesByVersion.put(subscriber.version, changes);
+                    }
+                }
+                frame.putAll(changes);
+                frame.remove("success");
+                if (stats == null) {
+                    stats = memoryService.getMemoryStatistics();
+                }
+                frame.put("stats", stats);
+                frame.put("events", happened);
+                if (fresh || changesSwap(happened)) {
+                    if (swapLists == null) {
+                        swapLists = new HashMap<>();
+                        swapLists.put("ramProcesses", swappingService.getRamProcesses());
+                        swapLists.put("swapProcesses", swappingService.getSwapProcesses());
+                        swapLists.put("processes", memoryService.getProcesses());
+                    }
+                    frame.putAll(swapLists);
+                }
+                send(subscriber, SseEmitter.event().name("state").data(frame), (Long) changes.get("version"),
+                        counts, now);
+            }
+        } catch (RuntimeException e) {
+            // A failed tick must not cancel the schedule; every subscriber catches up on the next one.
+            log.warn("State stream tick failed", e);
+        }
+    }
+
+    // Runs on a sender thread; the subscriber's state only advances once the frame is written.
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event, long version, long[] counts, long now) {
+        try {
+            senders.execute(() -> {
+                try {
+                    subscriber.emitter.send(event);
+                    subscriber.version = version;
+                    subscriber.snapshotSent = true;
+                    subscriber.counts = counts;
+                    subscriber.lastSentMillis = now;
+                    framesSent.increment();
+                } catch (IOException | IllegalStateException e) {
+                    drop(subscriber);
+                } finally {
+                    if (subscriber.dropped) {
+                        subscriber.emitter.complete();
+                    }
+                    subscriber.sending.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            drop(subscriber);
+            subscriber.emitter.complete();
+            subscriber.sending.set(false);
+        }
+    }
+
+    // Only unlists the subscriber: one blocked in a write holds its emitter's lock, so the emitter is
+    // completed by its sender once the write returns.
+    private void drop(Subscriber subscriber) {
+        subscriber.dropped = true;
+        if (subscribers.remove(subscriber)) {
+            clientsDropped.increment();
+        }
+    }
+
+    private static Map<String, Long> difference(long[] counts, long[] previous) {
+        Map<String, Long> happened = new HashMap<>();
+        StateEvents.Type[] types = StateEvents.types();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != previous[i]) {
+                happened.put(types[i].key(), counts[i] - previous[i]);
+            }
+        }
+        return happened;
+    }
+
+    private static boolean changesSwap(Map<String, Long> happened) {
+        for (StateEvents.Type type : StateEvents.types()) {
+            if (type.changesSwap() && happened.containsKey(type.key())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class Subscriber {
+        final SseEmitter emitter;
+        final AtomicBoolean sending = new AtomicBoolean();
+        // Written by the sender that holds the sending flag, read by the ticker after claiming it.
+        long version;
+        boolean snapshotSent;
+        long[] counts;
+        long lastSentMillis;
+        int skippedTicks;
+        volatile boolean dropped;
+
+        Subscriber(SseEmitter emitter, long[] counts) {
+            this.emitter = emitter;
+            this.counts = counts;
+        }
+    }
+}
@@ -1,54 +1,207 @@
 package com.example.memorymanagement.service;
 
+import com.example.memorymanagement.service.swap.AsyncSwapper;
+import com.example.memorymanagement.service.swap.RamArena;
+import com.example.memorymanagement.service.swap.SwapFile;
+import com.example.memorymanagement.service.swap.SwapManager;
+import com.example.memorymanagement.service.swap.SwapOutcome;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class SwappingService {
-    private Set<String> ramProcesses = new HashSet<>();
-    private Set<String> swapProcesses = new HashSet<>();
+    private static final int DEFAULT_PROCESS_PAGES = 4;
+
+    private final StateEvents events;
+    private final MemoryMetrics metrics;
+    private final String swapFileName;
+    private final int swapSlots;
+    private final int ramFrames;
+    private final int pageSize;
+    private final boolean syncWrites;
+    private final int readAheadPages;
+    private final int queueCapacity;
+    private final int maxBatch;
+    private SwapManager swap;
+    private AsyncSwapper swapper;
+
+    public SwappingService(StateEvents events, MemoryMetrics metrics,
+                           @Value("${memory.swap.file:}") String swapFileName,
+                           @Value("${memory.swap.slots:1024}") int swapSlots,
+                           @Value("${memory.swap.ram-frames:256}") int ramFrames,
+                           @Value("${memory.swap.page-size:4096}") int pageSize,
+                           @Value("${memory.swap.sync:false}") boolean syncWrites,
+                           @Value("${memory.swap.read-ahead:4}") int readAheadPages,
+                           @Value("${memory.swap.queue-capacity:1024}") int queueCapacity,
+                           @Value("${memory.swap.max-batch:32}") int maxBatch) {
+        this.events = events;
+        this.metrics = metrics;
+        this.swapFileName = swapFileName;
+        this.swapSlots = swapSlots;
+        this.ramFrames = ramFrames;
+        this.pageSize = pageSize;
+        this.syncWrites = syncWrites;
+        this.readAheadPages = readAheadPages;
+        this.queueCapacity = queueCapacity;
+        this.maxBatch = maxBatch;
+    }
 
     @PostConstruct
-    public void init() {
-        ramProcesses.add("Process-1");
-        ramProcesses.add("Process-2");
-        ramProcesses.add("Process-3");
-        swapProcesses.add("Process-4");
-        swapProcesses.add("Process-5");
+    public void init() throws IOException {
+        Path swapFile;
+        if (swapFileName.isEmpty()) {
+            swapFile = Files.createTempFile("memory-swap", ".bin");
+            swapFile.toFile().deleteOnExit();
+        } else {
+            swapFile = Paths.get(swapFileName);
+        }
+        swap = new SwapManager(new RamArena(ramFrames, pageSize), new SwapFile(swapFile, swapSlots, pageSize),
+                syncWrites, readAheadPages);
+
+        swap.load("Process-4", DEFAULT_PROCESS_PAGES);
+        swap.swapOut("Process-4");
+        swap.load("Process-5", DEFAULT_PROCESS_PAGES);
+        swap.swapOut("Process-5");
+        swap.load("Process-1", DEFAULT_PROCESS_PAGES);
+        swap.load("Process-2", DEFAULT_PROCESS_PAGES);
+        swap.load("Process-3", DEFAULT_PROCESS_PAGES);
+        swapper = new AsyncSwapper(swap, queueCapacity, maxBatch);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        swapper.close();
+        swap.close();
     }
 
     public void addProcessToRam(String processName) {
-        ramProcesses.add(processName);
+        addProcessToRam(processName, DEFAULT_PROCESS_PAGES);
+    }
+
+    public void addProcessToRam(String processName, int pages) {
+        swap.load(processName, pages);
+    }
+
+    public int freeRamFrames() {
+        return swap.freeRamFrames();
+    }
+
+    public boolean removeProcess(String processName) {
+        return swap.unload(processName);
+    }
+
+    // Swaps complete on the swap I/O thread; the returned future carries the message for the caller.
+    public CompletableFuture<String> swapOut(String processId) {
+        return queueSwapOut(processId).thenApply(outcome -> message(outcome, "swapped out to disk"));
     }
 
-    public String swapOut(String processId) {
-        if (ramProcesses.contains(processId)) {
-            ramProcesses.remove(processId);
-            swapProcesses.add(processId);
-            return "✅ Process " + processId + " swapped out to disk successfully!";
+    public CompletableFuture<String> swapIn(String processId) {
+        return queueSwapIn(processId).thenApply(outcome -> message(outcome, "swapped in to RAM"));
+    }
+
+    public CompletableFuture<List<SwapOutcome>> swapOutAll(List<String> processIds) {
+        List<CompletableFuture<SwapOutcome>> futures = new ArrayList<>();
+        for (String processId : processIds) {
+            futures.add(queueSwapOut(processId));
         }
-        return "❌ Process " + processId + " not found in RAM!";
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            List<SwapOutcome> outcomes = new ArrayList<>();
+            for (CompletableFuture<SwapOutcome> future : futures) {
+                outcomes.add(future.join());
+            }
+            return outcomes;
+        });
     }
 
-    public String swapIn(String processId) {
-        if (swapProcesses.contains(processId)) {
-            swapProcesses.remove(processId);
-            ramProcesses.add(processId);
-            return "✅ Process " + processId + " swapped in to RAM successfully!";
+    // Moves pages only; MemoryService.swapBatch also keeps the pool blocks of its own processes in step.
+    public CompletableFuture<Map<String, Object>> swapBatch(List<String> swapOut, List<String> swapIn) {
+        List<CompletableFuture<SwapOutcome>> futures = new ArrayList<>();
+        for (String processId : swapOut) {
+            futures.add(queueSwapOut(processId));
         }
-        return "❌ Process " + processId + " not found in swap space!";
+        for (String processId : swapIn) {
+            futures.add(queueSwapIn(processId));
+        }
+        return batchResult(futures);
+    }
+
+    // Summarises swaps queued together; queueing them all before waiting lets the I/O thread coalesce
+    // them into as few transfers as possible.
+    CompletableFuture<Map<String, Object>> batchResult(List<CompletableFuture<SwapOutcome>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).handle((ignored, error) -> {
+            Map<String, Object> result = new HashMap<>();
+            List<Object> outcomes = new ArrayList<>();
+            int succeeded = 0;
+            for (CompletableFuture<SwapOutcome> future : futures) {
+                if (future.isCompletedExceptionally()) {
+                    outcomes.add(future.handle((outcome, e) -> e.getMessage()).join());
+                    continue;
+                }
+                SwapOutcome outcome = future.join();
+                outcomes.add(outcome);
+                if (outcome.isSuccess()) {
+                    succeeded++;
+                }
+            }
+            result.put("success", succeeded == futures.size());
+            result.put("message", succeeded + " of " + futures.size() + " swap operations completed");
+            result.put("results", outcomes);
+            result.put("ramProcesses", getRamProcesses());
+            result.put("swapProcesses", getSwapProcesses());
+            return result;
+        });
     }
 
     public List<String> getRamProcesses() {
-        return new ArrayList<>(ramProcesses);
+        return swap.residentProcesses();
     }
 
     public List<String> getSwapProcesses() {
-        return new ArrayList<>(swapProcesses);
+        return swap.swappedProcesses();
+    }
+
+    public Map<String, Object> getSwapStatistics() {
+        Map<String, Object> stats = swap.getStatistics();
+        stats.put("async", swapper.getStatistics());
+        return stats;
+    }
+
+    CompletableFuture<SwapOutcome> queueSwapOut(String processId) {
+        long startTime = System.nanoTime();
+        return swapper.swapOut(processId).whenComplete((outcome, error) -> {
+            metrics.recordSwap("out", outcome != null && outcome.isSuccess(), System.nanoTime() - startTime);
+            if (outcome != null && outcome.isSuccess()) {
+                events.record(StateEvents.Type.SWAP_OUT);
+            }
+        });
+    }
+
+    CompletableFuture<SwapOutcome> queueSwapIn(String processId) {
+        long startTime = System.nanoTime();
+        return swapper.swapIn(processId).whenComplete((outcome, error) -> {
+            metrics.recordSwap("in", outcome != null && outcome.isSuccess(), System.nanoTime() - startTime);
+            if (outcome != null && outcome.isSuccess()) {
+                events.record(StateEvents.Type.SWAP_IN);
+            }
+        });
+    }
+
+    static String message(SwapOutcome outcome, String action) {
+        if (!outcome.isSuccess()) {
+            return "❌ " + outcome.getMessage() + "!";
+        }
+        return "✅ Process " + outcome.getName() + " " + action + " successfully in " + outcome.getIoMicros() + " µs!";
     }
 }
@@ -0,0 +1,348 @@
+package com.example.memorymanagement.service.allocation;
+
+import com.example.memorymanagement.model.MemoryBlock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AllocationEngine {
+    private final BlockPool pool;
+    private final AllocationTable allocations = new AllocationTable();
+    private final Compactor compactor;
+    private final BlockChangeLog changes;
+    private volatile BuddyAllocator buddy;
+    private volatile SlabAllocator slab;
+
+    public AllocationEngine(int capacity, int arenas) {
+        this(capacity, arenas, new BlockChangeLog(1024));
+    }
+
+    public AllocationEngine(int capacity, int arenas, BlockChangeLog changes) {
+        this.pool = new BlockPool(capacity, arenas);
+        this.changes = changes;
+        this.compactor = new Compactor(pool, allocations, changes);
+    }
+
+    public static boolean isSupported(String algorithm) {
+        switch (algorithm.toLowerCase()) {
+            case "first":
+            case "best":
+            case "worst":
+            case "buddy":
+            case "slab":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // The algorithms that place allocations directly in the pool, where compaction can make room.
+    public static boolean isPoolFit(String algorithm) {
+        switch (algorithm.toLowerCase()) {
+            case "first":
+            case "best":
+            case "worst":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Returns the start block of the new allocation, or -1 if nothing fits.
+    public int allocate(int size, String algorithm, int owner) {
+        return allocate(size, algorithm, owner, PinState.MOVABLE);
+    }
+
+    // The allocation starts PENDING: compaction leaves it where it is until the caller moves it on through
+    // allocations().transition, so the caller can still find it by its start after work done outside any
+    // lock the compactor respects.
+    public int allocatePinned(int size, String algorithm, int owner) {
+        return allocate(size, algorithm, owner, PinState.PENDING);
+    }
+
+    private int allocate(int size, String algorithm, int owner, PinState pin) {
+        if (size <= 0) {
+            return -1;
+        }
+        int start;
+        int length = size;
+        AllocationKind kind = AllocationKind.FIT;
+        switch (algorithm.toLowerCase()) {
+            case "first":
+                start = pool.firstFit(size);
+                break;
+            case "best":
+                start = pool.bestFit(size);
+                break;
+            case "worst":
+                start = pool.worstFit(size);
+                break;
+            case "buddy":
+                kind = AllocationKind.BUDDY;
+                start = buddy().allocate(size);
+                length = start == -1 ? 0 : buddy.blockSize(start);
+                break;
+            case "slab":
+                kind = AllocationKind.SLAB;
+                start = slab().allocate(size);
+                length = start == -1 ? 0 : slab.objectSize(start);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown allocation algorithm: " + algorithm);
+        }
+        if (start != -1) {
+            allocations.add(start, length, owner, kind, pin);
+            changes.record(start, length);
+        }
+        return start;
+    }
+
+    // Frees the allocation starting at start; returns null if no allocation starts there. Blocks inside an
+    // allocation are not accepted, so a stale id never frees whatever now covers it.
+    public AllocationHandle free(int start) {
+        if (start < 0 || start >= pool.capacity()) {
+            return null;
+        }
+        AllocationHandle handle = allocations.remove(start);
+        if (handle != null) {
+            release(handle);
+        }
+        return handle;
+    }
+
+    // As free, but leaves an allocation that is still pending or queued alone.
+    public AllocationHandle freeSettled(int start) {
+        AllocationHandle handle = allocations.removeSettled(start);
+        if (handle != null) {
+            release(handle);
+        }
+        return handle;
+    }
+
+    public List<AllocationHandle> freeOwner(int owner) {
+        List<AllocationHandle> handles = allocations.removeOwner(owner);
+        for (AllocationHandle handle : handles) {
+            release(handle);
+        }
+        return handles;
+    }
+
+    public AllocationTable allocations() {
+        return allocations;
+    }
+
+    public BlockChangeLog changes() {
+        return changes;
+    }
+
+    public List<MemoryBlock> snapshotBlocks() {
+        List<MemoryBlock> blocks = snapshotFreeBlocks(0, pool.capacity());
+        for (AllocationHandle handle : allocations.handles()) {
+            blocks.get(handle.getStart()).setAllocationStart(true);
+            if (handle.getOwner() == AllocationTable.NO_OWNER) {
+                continue;
+            }
+            String owner = String.valueOf(handle.getOwner());
+            for (int i = handle.getStart(); i < handle.getStart() + handle.getLength(); i++) {
+                blocks.get(i).allocate(owner);
+            }
+        }
+        return blocks;
+    }
+
+    // Blocks from (inclusive) to end (exclusive); owners come from the allocations overlapping the range.
+    public List<MemoryBlock> snapshotBlocks(int from, int end) {
+        if (from < 0 || end > pool.capacity() || from > end) {
+            throw new IndexOutOfBoundsException("Block range " + from + ".." + end + " outside pool");
+        }
+        List<MemoryBlock> blocks = snapshotFreeBlocks(from, end);
+        int i = from;
+        if (from < end && !pool.isFree(from) && allocations.get(from) == null) {
+            int start = findContainingStart(from);
+            if (start != -1) {
+                i = start;
+            }
+        }
+        while (i < end) {
+            AllocationHandle handle = allocations.get(i);
+            if (handle == null) {
+                i++;
+                continue;
+            }
+            if (handle.getStart() >= from) {
+                blocks.get(handle.getStart() - from).setAllocationStart(true);
+            }
+            if (handle.getOwner() != AllocationTable.NO_OWNER) {
+                String owner = String.valueOf(handle.getOwner());
+                int last = Math.min(end, handle.getStart() + handle.getLength());
+                for (int block = Math.max(from, handle.getStart()); block < last; block++) {
+                    blocks.get(block - from).allocate(owner);
+                }
+            }
+            i = handle.getStart() + Math.max(1, handle.getLength());
+        }
+        return blocks;
+    }
+
+    public interface ExtentVisitor {
+        void extent(int start, int length, boolean free, int owner);
+    }
+
+    // Visits the pool as maximal runs of blocks sharing a state and owner, in block order, without
+    // materialising per-block views.
+    public void visitExtents(ExtentVisitor visitor) {
+        BuddyAllocator buddy = this.buddy;
+        SlabAllocator slab = this.slab;
+        int capacity = pool.capacity();
+        int runStart = 0;
+        boolean runFree = true;
+        int runOwner = AllocationTable.NO_OWNER;
+        int i = 0;
+        while (i < capacity) {
+            boolean free = true;
+            int owner = AllocationTable.NO_OWNER;
+            int end = i + 1;
+            if (pool.isFree(i)) {
+                end = pool.nextUsed(i);
+            } else if ((buddy == null || !buddy.isFree(i)) && (slab == null || !slab.isFree(i))) {
+                free = false;
+                AllocationHandle handle = allocations.get(i);
+                if (handle != null) {
+                    owner = handle.getOwner();
+                    end = Math.min(capacity, i + Math.max(1, handle.getLength()));
+                }
+            }
+            if (i > runStart && (free != runFree || owner != runOwner)) {
+                visitor.extent(runStart, i - runStart, runFree, runOwner);
+                runStart = i;
+            }
+            if (i == runStart) {
+                runFree = free;
+                runOwner = owner;
+            }
+            i = end;
+        }
+        if (capacity > runStart) {
+            visitor.extent(runStart, capacity - runStart, runFree, runOwner);
+        }
+    }
+
+    public int capacity() {
+        return pool.capacity();
+    }
+
+    public int arenaCount() {
+        return pool.arenaCount();
+    }
+
+    public int holeCount() {
+        return pool.holeCount();
+    }
+
+    public int largestHole() {
+        return pool.largestHole();
+    }
+
+    // Most free blocks in one arena: the largest fit compaction could ever produce.
+    public int largestArenaFree() {
+        return pool.largestArenaFree();
+    }
+
+    // Free space of the pool itself; blocks held free inside buddy superblocks and slabs count as used here.
+    public PoolStatistics poolStatistics() {
+        return pool.statistics();
+    }
+
+    public int freeBlocks() {
+        return pool.freeCount() + reservedFreeBlocks();
+    }
+
+    public int allocatedBlocks() {
+        return pool.usedCount() - reservedFreeBlocks();
+    }
+
+    public Compactor compactor() {
+        return compactor;
+    }
+
+    public BuddyAllocator getBuddy() {
+        return buddy;
+    }
+
+    public SlabAllocator getSlab() {
+        return slab;
+    }
+
+    // Blocks held by the buddy and slab allocators that are not currently handed out.
+    private int reservedFreeBlocks() {
+        BuddyAllocator buddy = this.buddy;
+        SlabAllocator slab = this.slab;
+        return (buddy != null ? buddy.freeBlocks() : 0) + (slab != null ? slab.freeBlocks() : 0);
+    }
+
+    private List<MemoryBlock> snapshotFreeBlocks(int from, int end) {
+        BuddyAllocator buddy = this.buddy;
+        SlabAllocator slab = this.slab;
+        List<MemoryBlock> blocks = new ArrayList<>(end - from);
+        for (int i = from; i < end; i++) {
+            boolean free = pool.isFree(i)
+                    || (buddy != null && buddy.isFree(i))
+                    || (slab != null && slab.isFree(i));
+            blocks.add(new MemoryBlock(i, free, 1));
+        }
+        return blocks;
+    }
+
+    private void release(AllocationHandle handle) {
+        switch (handle.getKind()) {
+            case BUDDY:
+                buddy.free(handle.getStart());
+                break;
+            case SLAB:
+                slab.free(handle.getStart());
+                break;
+            default:
+                pool.release(handle.getStart(), handle.getLength());
+                break;
+        }
+        changes.record(handle.getStart(), handle.getLength());
+    }
+
+    // Walks back over used blocks; no allocation is longer than one arena, so the walk is bounded.
+    private int findContainingStart(int blockId) {
+        int limit = Math.max(0, blockId - pool.maxExtent() + 1);
+        for (int i = blockId - 1; i >= limit && !pool.isFree(i); i--) {
+            AllocationHandle handle = allocations.get(i);
+            if (handle != null) {
+                return handle.getStart() + handle.getLength() > blockId ? i : -1;
+            }
+        }
+        return -1;
+    }
+
+    private BuddyAllocator buddy() {
+        BuddyAllocator allocator = buddy;
+        if (allocator == null) {
+            synchronized (this) {
+                if (buddy == null) {
+                    buddy = new BuddyAllocator(pool);
+                }
+                allocator = buddy;
+            }
+        }
+        return allocator;
+    }
+
+    private SlabAllocator slab() {
+        SlabAllocator allocator = slab;
+        if (allocator == null) {
+            synchronized (this) {
+                if (slab == null) {
+                    slab = new SlabAllocator(pool);
+                }
+                allocator = slab;
+            }
+        }
+        return allocator;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.memorymanagement.service.allocation;
+
+public class AllocationHandle {
+    private final int start;
+    private final int length;
+    private final int owner;
+    private final AllocationKind kind;
+    private final PinState pin;
+
+    public AllocationHandle(int start, int length, int owner, AllocationKind kind) {
+        this(start, length, owner, kind, PinState.MOVABLE);
+    }
+
+    public AllocationHandle(int start, int length, int owner, AllocationKind kind, PinState pin) {
+        this.start = start;
+        this.length = length;
+        this.owner = owner;
+        this.kind = kind;
+        this.pin = pin;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public int getOwner() {
+        return owner;
+    }
+
+    public AllocationKind getKind() {
+        return kind;
+    }
+
+    // Pinned allocations are never moved by compaction.
+    public boolean isPinned() {
+        return pin != PinState.MOVABLE;
+    }
+
+    public PinState getPinState() {
+        return pin;
+    }
+
+    @Override
+    public String toString() {
+        return "AllocationHandle{" +
+                "start=" + start +
+                ", length=" + length +
+                ", owner=" + owner +
+                ", kind=" + kind +
+                ", pin=" + pin +
+                '}';
+    }
+}
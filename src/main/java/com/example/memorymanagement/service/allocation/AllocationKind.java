@@ -0,0 +1,7 @@
+package com.example.memorymanagement.service.allocation;
+
+public enum AllocationKind {
+    FIT,
+    BUDDY,
+    SLAB
+}
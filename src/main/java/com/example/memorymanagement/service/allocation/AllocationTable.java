@@ -0,0 +1,216 @@
+package com.example.memorymanagement.service.allocation;
+
+import com.example.memorymanagement.util.IntIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Live allocations keyed by start block, striped so concurrent callers rarely share a lock.
+public class AllocationTable {
+    public static final int NO_OWNER = 0;
+
+    private static final int STRIPES = 16;
+    private static final AllocationKind[] KINDS = AllocationKind.values();
+    private static final PinState[] PINS = PinState.values();
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public AllocationTable() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    public void add(int start, int length, int owner, AllocationKind kind) {
+        add(start, length, owner, kind, PinState.MOVABLE);
+    }
+
+    public void add(int start, int length, int owner, AllocationKind kind, PinState pin) {
+        Stripe stripe = stripeFor(start);
+        synchronized (stripe) {
+            stripe.add(start, length, owner, kind, pin);
+        }
+    }
+
+    // Moves the allocation at start from one pin state to another; false if nothing starts there or it is
+    // not in state from, e.g. because it was freed and the start reused.
+    public boolean transition(int start, PinState from, PinState to) {
+        Stripe stripe = stripeFor(start);
+        synchronized (stripe) {
+            int slot = stripe.index.get(start);
+            if (slot == -1 || stripe.pins[slot] != from.ordinal()) {
+                return false;
+            }
+            stripe.pins[slot] = (byte) to.ordinal();
+            return true;
+        }
+    }
+
+    public AllocationHandle get(int start) {
+        Stripe stripe = stripeFor(start);
+        synchronized (stripe) {
+            int slot = stripe.index.get(start);
+            return slot == -1 ? null : stripe.handle(slot);
+        }
+    }
+
+    public AllocationHandle remove(int start) {
+        Stripe stripe = stripeFor(start);
+        synchronized (stripe) {
+            int slot = stripe.index.get(start);
+            if (slot == -1) {
+                return null;
+            }
+            AllocationHandle handle = stripe.handle(slot);
+            stripe.remove(slot);
+            return handle;
+        }
+    }
+
+    // Removes the allocation at start only if it is settled, so an allocation that reused the start of a
+    // freed one is never taken for it.
+    public AllocationHandle removeSettled(int start) {
+        Stripe stripe = stripeFor(start);
+        synchronized (stripe) {
+            int slot = stripe.index.get(start);
+            if (slot == -1 || !PINS[stripe.pins[slot]].isSettled()) {
+                return null;
+            }
+            AllocationHandle handle = stripe.handle(slot);
+            stripe.remove(slot);
+            return handle;
+        }
+    }
+
+    public List<AllocationHandle> removeOwner(int owner) {
+        List<AllocationHandle> removed = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                int slot = stripe.ownerHeads.get(owner);
+                while (slot != -1) {
+                    int next = stripe.nextOfOwner[slot];
+                    removed.add(stripe.handle(slot));
+                    stripe.remove(slot);
+                    slot = next;
+                }
+            }
+        }
+        return removed;
+    }
+
+    public List<AllocationHandle> ownedBy(int owner) {
+        List<AllocationHandle> handles = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (int slot = stripe.ownerHeads.get(owner); slot != -1; slot = stripe.nextOfOwner[slot]) {
+                    handles.add(stripe.handle(slot));
+                }
+            }
+        }
+        return handles;
+    }
+
+    public List<AllocationHandle> handles() {
+        List<AllocationHandle> handles = new ArrayList<>(size());
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.index.forEach((start, slot) -> handles.add(stripe.handle(slot)));
+            }
+        }
+        return handles;
+    }
+
+    private Stripe stripeFor(int start) {
+        int h = start * 0x9E3779B9;
+        return stripes[(h >>> 28) & (STRIPES - 1)];
+    }
+
+    // Handles live in dense slot arrays; each owner's handles form a doubly-linked list through them.
+    private static class Stripe {
+        final IntIntHashMap index = new IntIntHashMap(64, -1);
+        final IntIntHashMap ownerHeads = new IntIntHashMap(16, -1);
+        int[] starts = new int[16];
+        int[] lengths = new int[16];
+        int[] owners = new int[16];
+        byte[] kinds = new byte[16];
+        byte[] pins = new byte[16];
+        int[] prevOfOwner = new int[16];
+        int[] nextOfOwner = new int[16];
+        int freeSlots = -1;
+        int slotsUsed;
+        volatile int size;
+
+        void add(int start, int length, int owner, AllocationKind kind, PinState pin) {
+            if (index.containsKey(start)) {
+                throw new IllegalStateException("Block " + start + " already starts an allocation");
+            }
+            int slot = takeSlot();
+            starts[slot] = start;
+            lengths[slot] = length;
+            owners[slot] = owner;
+            kinds[slot] = (byte) kind.ordinal();
+            pins[slot] = (byte) pin.ordinal();
+
+            int head = ownerHeads.get(owner);
+            prevOfOwner[slot] = -1;
+            nextOfOwner[slot] = head;
+            if (head != -1) {
+                prevOfOwner[head] = slot;
+            }
+            ownerHeads.put(owner, slot);
+            index.put(start, slot);
+            size++;
+        }
+
+        void remove(int slot) {
+            index.remove(starts[slot]);
+            int prev = prevOfOwner[slot];
+            int next = nextOfOwner[slot];
+            if (prev != -1) {
+                nextOfOwner[prev] = next;
+            } else if (next != -1) {
+                ownerHeads.put(owners[slot], next);
+            } else {
+                ownerHeads.remove(owners[slot]);
+            }
+            if (next != -1) {
+                prevOfOwner[next] = prev;
+            }
+            nextOfOwner[slot] = freeSlots;
+            freeSlots = slot;
+            size--;
+        }
+
+        AllocationHandle handle(int slot) {
+            return new AllocationHandle(starts[slot], lengths[slot], owners[slot], KINDS[kinds[slot]], PINS[pins[slot]]);
+        }
+
+        private int takeSlot() {
+            if (freeSlots != -1) {
+                int slot = freeSlots;
+                freeSlots = nextOfOwner[slot];
+                return slot;
+            }
+            if (slotsUsed == starts.length) {
+                int capacity = starts.length * 2;
+                starts = Arrays.copyOf(starts, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                owners = Arrays.copyOf(owners, capacity);
+                kinds = Arrays.copyOf(kinds, capacity);
+                pins = Arrays.copyOf(pins, capacity);
+                prevOfOwner = Arrays.copyOf(prevOfOwner, capacity);
+                nextOfOwner = Arrays.copyOf(nextOfOwner, capacity);
+            }
+            return slotsUsed++;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.memorymanagement.service.allocation;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+class Arena {
+    static final int FIRST_FIT = 0;
+    static final int BEST_FIT = 1;
+    static final int WORST_FIT = 2;
+
+    final int base;
+    final int size;
+    final ReentrantLock lock = new ReentrantLock();
+    private final FreeBitmap freeMap;
+    private final FreeExtentIndex extents;
+
+    // Published after every change so statistics can be read without taking the lock.
+    private volatile int freeCount;
+    private volatile int holeCount;
+    private volatile int largestHole;
+    private volatile long modifications;
+
+    Arena(int base, int size) {
+        this.base = base;
+        this.size = size;
+        this.freeMap = new FreeBitmap(size);
+        this.extents = new FreeExtentIndex(size);
+        publish();
+    }
+
+    int freeCount() {
+        return freeCount;
+    }
+
+    int holeCount() {
+        return holeCount;
+    }
+
+    int largestHole() {
+        return largestHole;
+    }
+
+    // Grows with every change, so an unchanged value means cached statistics are still current.
+    long modifications() {
+        return modifications;
+    }
+
+    // The bitmap readers below are lock-free snapshots, good enough for views and scans.
+    boolean isFree(int index) {
+        return freeMap.isFree(index - base);
+    }
+
+    int nextFree(int from) {
+        int next = freeMap.nextFree(from - base);
+        return next == -1 ? -1 : base + next;
+    }
+
+    int nextUsed(int from) {
+        return base + freeMap.nextUsed(from - base);
+    }
+
+    // Callers must hold the lock for everything below.
+    int allocate(int blocks, int fit) {
+        if (blocks > largestHole) {
+            return -1;
+        }
+        int start;
+        switch (fit) {
+            case BEST_FIT:
+                start = extents.findBestFit(blocks);
+                break;
+            case WORST_FIT:
+                start = extents.findWorstFit(blocks);
+                break;
+            default:
+                start = freeMap.findFirstFit(blocks);
+                break;
+        }
+        if (start == -1) {
+            return -1;
+        }
+        reserveLocal(start, blocks);
+        return base + start;
+    }
+
+    int alignedFit(int blocks, int alignment) {
+        if (blocks > largestHole) {
+            return -1;
+        }
+        int start = freeMap.nextFree(0);
+        while (start != -1) {
+            int end = freeMap.nextUsed(start);
+            int aligned = ((base + start + alignment - 1) & -alignment) - base;
+            if (aligned >= 0 && aligned <= end - blocks) {
+                reserveLocal(aligned, blocks);
+                return base + aligned;
+            }
+            start = freeMap.nextFree(end);
+        }
+        return -1;
+    }
+
+    void addHoleSizes(int[] histogram) {
+        extents.addHoleSizes(histogram);
+    }
+
+    boolean isRangeFree(int start, int length) {
+        return freeMap.isRangeFree(start - base, length);
+    }
+
+    void reserve(int start, int length) {
+        reserveLocal(start - base, length);
+    }
+
+    boolean release(int start, int length) {
+        int local = start - base;
+        int next = freeMap.nextFree(local);
+        if (next != -1 && next < local + length) {
+            return false;
+        }
+        freeMap.markFree(local, length);
+        extents.release(local, length);
+        publish();
+        return true;
+    }
+
+    // Moves a used range to [to, to + length), which may overlap it but must otherwise be free.
+    boolean relocate(int from, int to, int length) {
+        if (!release(from, length)) {
+            return false;
+        }
+        if (!isRangeFree(to, length)) {
+            reserve(from, length);
+            return false;
+        }
+        reserve(to, length);
+        return true;
+    }
+
+    private void reserveLocal(int start, int length) {
+        extents.reserve(start, length);
+        freeMap.markUsed(start, length);
+        publish();
+    }
+
+    private void publish() {
+        freeCount = freeMap.freeCount();
+        holeCount = extents.holeCount();
+        largestHole = extents.largestHole();
+        modifications++;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.memorymanagement.service.allocation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Bounded log of the block ranges whose state changed, each stamped with a version that only grows.
+// Clients that remember a version fetch the ranges changed since then instead of the whole map; a
+// version older than the retained window, or from before an invalidate, gets no ranges.
+public class BlockChangeLog {
+    private final int[] starts;
+    private final int[] lengths;
+    private long version;
+    private long floor;
+
+    public BlockChangeLog(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Change log capacity must be positive");
+        }
+        this.starts = new int[capacity];
+        this.lengths = new int[capacity];
+    }
+
+    public synchronized long record(int start, int length) {
+        version++;
+        int index = (int) (version % starts.length);
+        starts[index] = start;
+        lengths[index] = length;
+        return version;
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    // Every range before the new version is forgotten, so older clients fall back to a full snapshot.
+    public synchronized long invalidate() {
+        version++;
+        floor = version;
+        return version;
+    }
+
+    // Changed ranges as sorted, disjoint {start, end} pairs, or null if they are no longer known.
+    public synchronized Changes changesSince(long since) {
+        long oldest = Math.max(floor, version - starts.length);
+        if (since < oldest || since > version) {
+            return new Changes(version, null);
+        }
+        int count = (int) (version - since);
+        long[] ranges = new long[count];
+        for (int i = 0; i < count; i++) {
+            int index = (int) ((since + 1 + i) % starts.length);
+            ranges[i] = (long) starts[index] << 32 | (starts[index] + lengths[index]);
+        }
+        Arrays.sort(ranges);
+
+        List<int[]> merged = new ArrayList<>();
+        int[] current = null;
+        for (long range : ranges) {
+            int start = (int) (range >>> 32);
+            int end = (int) range;
+            if (current != null && start <= current[1]) {
+                current[1] = Math.max(current[1], end);
+            } else {
+                current = new int[]{start, end};
+                merged.add(current);
+            }
+        }
+        return new Changes(version, merged);
+    }
+
+    public static class Changes {
+        private final long version;
+        private final List<int[]> ranges;
+
+        Changes(long version, List<int[]> ranges) {
+            this.version = version;
+            this.ranges = ranges;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public boolean isComplete() {
+            return ranges != null;
+        }
+
+        public List<int[]> getRanges() {
+            return ranges;
+        }
+
+        public int blockCount() {
+            int blocks = 0;
+            for (int[] range : ranges) {
+                blocks += range[1] - range[0];
+            }
+            return blocks;
+        }
+    }
+}
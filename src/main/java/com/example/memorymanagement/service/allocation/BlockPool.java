@@ -0,0 +1,271 @@
+package com.example.memorymanagement.service.allocation;
+
+public class BlockPool {
+    private static final int MIN_ARENA_BLOCKS = 4096;
+
+    private final int capacity;
+    private final int arenaSize;
+    private final Arena[] arenas;
+    private volatile PoolStatistics statistics;
+
+    public BlockPool(int capacity) {
+        this(capacity, 0);
+    }
+
+    // arenaCount <= 0 picks one arena per core, as long as each arena keeps at least MIN_ARENA_BLOCKS.
+    public BlockPool(int capacity, int arenaCount) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Pool capacity must be positive: " + capacity);
+        }
+        if (arenaCount <= 0) {
+            arenaCount = Math.min(Runtime.getRuntime().availableProcessors(), capacity / MIN_ARENA_BLOCKS);
+        }
+        arenaCount = Math.max(1, Math.min(arenaCount, capacity));
+        this.capacity = capacity;
+        if (arenaCount == 1) {
+            this.arenaSize = capacity;
+        } else {
+            // Power-of-two arenas keep every arena base aligned for buddy superblocks and slabs.
+            int perArena = (capacity + arenaCount - 1) / arenaCount;
+            this.arenaSize = Integer.highestOneBit(perArena - 1) << 1;
+        }
+        this.arenas = new Arena[(capacity + arenaSize - 1) / arenaSize];
+        for (int i = 0; i < arenas.length; i++) {
+            int base = i * arenaSize;
+            arenas[i] = new Arena(base, Math.min(arenaSize, capacity - base));
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int arenaCount() {
+        return arenas.length;
+    }
+
+    // Largest extent a single allocation can span; allocations never cross arenas.
+    public int maxExtent() {
+        return arenaSize;
+    }
+
+    public int freeCount() {
+        int free = 0;
+        for (Arena arena : arenas) {
+            free += arena.freeCount();
+        }
+        return free;
+    }
+
+    public int largestArenaFree() {
+        int largest = 0;
+        for (Arena arena : arenas) {
+            largest = Math.max(largest, arena.freeCount());
+        }
+        return largest;
+    }
+
+    public int usedCount() {
+        return capacity - freeCount();
+    }
+
+    public int holeCount() {
+        int holes = 0;
+        for (Arena arena : arenas) {
+            holes += arena.holeCount();
+        }
+        return holes;
+    }
+
+    public int largestHole() {
+        int largest = 0;
+        for (Arena arena : arenas) {
+            largest = Math.max(largest, arena.largestHole());
+        }
+        return largest;
+    }
+
+    // Rebuilt only after some arena has changed since the last call; otherwise the cached snapshot is returned.
+    public PoolStatistics statistics() {
+        long modifications = 0;
+        for (Arena arena : arenas) {
+            modifications += arena.modifications();
+        }
+        PoolStatistics cached = statistics;
+        if (cached != null && cached.modifications() == modifications) {
+            return cached;
+        }
+
+        // Each arena is read under its lock so its histogram agrees with its counters.
+        int free = 0;
+        int holes = 0;
+        int largest = 0;
+        int[] histogram = new int[PoolStatistics.SIZE_CLASSES];
+        for (Arena arena : arenas) {
+            arena.lock.lock();
+            try {
+                free += arena.freeCount();
+                holes += arena.holeCount();
+                largest = Math.max(largest, arena.largestHole());
+                arena.addHoleSizes(histogram);
+            } finally {
+                arena.lock.unlock();
+            }
+        }
+        PoolStatistics fresh = new PoolStatistics(modifications, capacity, arenas.length, free, holes, largest,
+                histogram);
+        statistics = fresh;
+        return fresh;
+    }
+
+    public boolean isFree(int index) {
+        return arenaOf(index).isFree(index);
+    }
+
+    public int nextFree(int from) {
+        for (int i = Math.max(0, from) / arenaSize; i < arenas.length; i++) {
+            int next = arenas[i].nextFree(Math.max(from, arenas[i].base));
+            if (next != -1) {
+                return next;
+            }
+        }
+        return -1;
+    }
+
+    public int nextUsed(int from) {
+        for (int i = Math.max(0, from) / arenaSize; i < arenas.length; i++) {
+            Arena arena = arenas[i];
+            int next = arena.nextUsed(Math.max(from, arena.base));
+            if (next < arena.base + arena.size) {
+                return next;
+            }
+        }
+        return capacity;
+    }
+
+    public int firstFit(int size) {
+        return allocate(size, Arena.FIRST_FIT, 0);
+    }
+
+    public int bestFit(int size) {
+        return allocate(size, Arena.BEST_FIT, 0);
+    }
+
+    public int worstFit(int size) {
+        return allocate(size, Arena.WORST_FIT, 0);
+    }
+
+    // First free range of the given size whose start is a multiple of alignment (a power of two).
+    public int alignedFit(int size, int alignment) {
+        return allocate(size, -1, alignment);
+    }
+
+    public boolean isRangeFree(int from, int length) {
+        Arena arena = arenaFor(from, length);
+        arena.lock.lock();
+        try {
+            return arena.isRangeFree(from, length);
+        } finally {
+            arena.lock.unlock();
+        }
+    }
+
+    public void reserve(int start, int length) {
+        Arena arena = arenaFor(start, length);
+        arena.lock.lock();
+        try {
+            arena.reserve(start, length);
+        } finally {
+            arena.lock.unlock();
+        }
+    }
+
+    public boolean tryRelease(int start, int length) {
+        Arena arena = arenaFor(start, length);
+        arena.lock.lock();
+        try {
+            return arena.release(start, length);
+        } finally {
+            arena.lock.unlock();
+        }
+    }
+
+    public void release(int start, int length) {
+        if (!tryRelease(start, length)) {
+            throw new IllegalStateException("Range [" + start + ", " + (start + length) + ") is not allocated");
+        }
+    }
+
+    public int arenaIndex(int block) {
+        return arenaOf(block).base / arenaSize;
+    }
+
+    // Slides a used range to a new start in the same arena; false if the range was not fully used
+    // or the destination is taken.
+    public boolean relocate(int from, int to, int length) {
+        Arena arena = arenaFor(from, length);
+        if (arenaFor(to, length) != arena) {
+            throw new IllegalArgumentException("Cannot move [" + from + ", " + (from + length) + ") across arenas");
+        }
+        arena.lock.lock();
+        try {
+            return arena.relocate(from, to, length);
+        } finally {
+            arena.lock.unlock();
+        }
+    }
+
+    private int allocate(int size, int fit, int alignment) {
+        if (size <= 0 || size > arenaSize) {
+            return -1;
+        }
+        int home = arenas.length == 1 ? 0 : (int) (Thread.currentThread().getId() % arenas.length);
+
+        // First pass skips arenas another thread is busy with; the second pass waits for them.
+        for (int i = 0; i < arenas.length; i++) {
+            Arena arena = arenas[(home + i) % arenas.length];
+            if (arena.largestHole() >= size && arena.lock.tryLock()) {
+                int start = allocateLocked(arena, size, fit, alignment);
+                if (start != -1) {
+                    return start;
+                }
+            }
+        }
+        for (int i = 0; i < arenas.length; i++) {
+            Arena arena = arenas[(home + i) % arenas.length];
+            if (arena.largestHole() >= size) {
+                arena.lock.lock();
+                int start = allocateLocked(arena, size, fit, alignment);
+                if (start != -1) {
+                    return start;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // Allocates from an arena whose lock the caller has just acquired, and releases that lock.
+    private static int allocateLocked(Arena arena, int size, int fit, int alignment) {
+        try {
+            return fit == -1 ? arena.alignedFit(size, alignment) : arena.allocate(size, fit);
+        } finally {
+            arena.lock.unlock();
+        }
+    }
+
+    private Arena arenaOf(int index) {
+        if (index < 0 || index >= capacity) {
+            throw new IndexOutOfBoundsException("Block " + index + " is outside the pool of " + capacity);
+        }
+        return arenas[index / arenaSize];
+    }
+
+    private Arena arenaFor(int start, int length) {
+        Arena arena = arenaOf(start);
+        if (length < 0 || start + length > arena.base + arena.size) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + (start + length)
+                    + ") crosses an arena boundary");
+        }
+        return arena;
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.memorymanagement.service.allocation;
+
+import java.util.Arrays;
+
+// Guarded by its own monitor. It may call into the pool while holding it, but the pool never calls back.
+public class BuddyAllocator {
+    private static final int MAX_ORDER_LIMIT = 20;
+    private static final int NIL = -1;
+
+    private final BlockPool pool;
+    private final int maxOrder;
+    // Blocks inside buddy-owned superblocks that are currently free.
+    private final FreeBitmap freeMap;
+    // Per-order free lists, threaded through next/prev by block index.
+    private final int[] heads;
+    private final int[] next;
+    private final int[] prev;
+    // order + 1 for the head of a free block, -(order + 1) for the start of an allocation, 0 otherwise.
+    private final byte[] state;
+    private final int[] requested;
+    private final boolean[] superblocks;
+
+    private int freeBlocks;
+    private long requestedBlocks;
+    private long grantedBlocks;
+    private long splits;
+    private long merges;
+
+    public BuddyAllocator(BlockPool pool) {
+        this.pool = pool;
+        this.maxOrder = Math.min(MAX_ORDER_LIMIT, 31 - Integer.numberOfLeadingZeros(Math.max(1, pool.maxExtent())));
+        int capacity = pool.capacity();
+        this.freeMap = new FreeBitmap(capacity);
+        this.freeMap.markUsed(0, capacity);
+        this.heads = new int[maxOrder + 1];
+        Arrays.fill(heads, NIL);
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.state = new byte[capacity];
+        this.requested = new int[capacity];
+        this.superblocks = new boolean[(capacity >>> maxOrder) + 1];
+    }
+
+    public synchronized int allocate(int size) {
+        if (size <= 0) {
+            return -1;
+        }
+        int order = orderFor(size);
+        if (order > maxOrder) {
+            return -1;
+        }
+
+        int k = order;
+        while (k <= maxOrder && heads[k] == NIL) {
+            k++;
+        }
+        if (k > maxOrder) {
+            if (!addSuperblock()) {
+                return -1;
+            }
+            k = maxOrder;
+        }
+
+        int block = heads[k];
+        unlink(block, k);
+        while (k > order) {
+            k--;
+            push(block + (1 << k), k);
+            splits++;
+        }
+
+        state[block] = (byte) -(order + 1);
+        requested[block] = size;
+        freeMap.markUsed(block, 1 << order);
+        freeBlocks -= 1 << order;
+        requestedBlocks += size;
+        grantedBlocks += 1 << order;
+        return block;
+    }
+
+    public synchronized boolean free(int start) {
+        if (!isAllocationStart(start)) {
+            return false;
+        }
+        int order = -state[start] - 1;
+        state[start] = 0;
+        freeMap.markFree(start, 1 << order);
+        freeBlocks += 1 << order;
+        requestedBlocks -= requested[start];
+        grantedBlocks -= 1 << order;
+
+        while (order < maxOrder) {
+            int buddy = start ^ (1 << order);
+            if (buddy >= state.length || state[buddy] != order + 1) {
+                break;
+            }
+            unlink(buddy, order);
+            start = Math.min(start, buddy);
+            order++;
+            merges++;
+        }
+
+        if (order == maxOrder) {
+            // The whole superblock is free again, so hand it back to the general pool.
+            freeMap.markUsed(start, 1 << maxOrder);
+            freeBlocks -= 1 << maxOrder;
+            superblocks[start >>> maxOrder] = false;
+            pool.release(start, 1 << maxOrder);
+        } else {
+            push(start, order);
+        }
+        return true;
+    }
+
+    public synchronized boolean isAllocationStart(int index) {
+        return index >= 0 && index < state.length && state[index] < 0;
+    }
+
+    // Blocks granted to the allocation starting at start, or 0 if no buddy allocation starts there.
+    public synchronized int blockSize(int start) {
+        return isAllocationStart(start) ? 1 << (-state[start] - 1) : 0;
+    }
+
+    public synchronized boolean owns(int index) {
+        return index >= 0 && index < state.length && superblocks[index >>> maxOrder];
+    }
+
+    public synchronized boolean isFree(int index) {
+        return owns(index) && freeMap.isFree(index);
+    }
+
+    public int maxOrder() {
+        return maxOrder;
+    }
+
+    public synchronized int freeBlocks() {
+        return freeBlocks;
+    }
+
+    public synchronized long requestedBlocks() {
+        return requestedBlocks;
+    }
+
+    public synchronized long grantedBlocks() {
+        return grantedBlocks;
+    }
+
+    public synchronized long internalFragmentation() {
+        return grantedBlocks - requestedBlocks;
+    }
+
+    public synchronized long splits() {
+        return splits;
+    }
+
+    public synchronized long merges() {
+        return merges;
+    }
+
+    private boolean addSuperblock() {
+        int size = 1 << maxOrder;
+        int start = pool.alignedFit(size, size);
+        if (start == -1) {
+            return false;
+        }
+        superblocks[start >>> maxOrder] = true;
+        freeMap.markFree(start, size);
+        freeBlocks += size;
+        push(start, maxOrder);
+        return true;
+    }
+
+    private void push(int block, int order) {
+        int head = heads[order];
+        next[block] = head;
+        prev[block] = NIL;
+        if (head != NIL) {
+            prev[head] = block;
+        }
+        heads[order] = block;
+        state[block] = (byte) (order + 1);
+    }
+
+    private void unlink(int block, int order) {
+        if (prev[block] != NIL) {
+            next[prev[block]] = next[block];
+        } else {
+            heads[order] = next[block];
+        }
+        if (next[block] != NIL) {
+            prev[next[block]] = prev[block];
+        }
+        state[block] = 0;
+    }
+
+    private static int orderFor(int size) {
+        return size == 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.memorymanagement.service.allocation;
+
+// Incremental sliding compaction. Each step walks the pool from where the last step stopped and
+// slides the allocation after every hole down to the hole's start, until its block or time budget
+// runs out. Only unpinned fit allocations move; buddy superblocks and slabs stay put, and nothing
+// crosses an arena. A move takes one arena lock for one allocation, so callers never wait on a whole pass.
+public class Compactor {
+    public interface RelocationListener {
+        void relocated(int from, int to);
+    }
+
+    private final BlockPool pool;
+    private final AllocationTable allocations;
+    private int cursor;
+    private long cycles;
+    private long totalBlocksMoved;
+    private long totalAllocationsMoved;
+    private long cycleBlocksMoved;
+    private long lastCycleBlocksMoved;
+    private final BlockChangeLog changes;
+    private volatile RelocationListener listener;
+
+    Compactor(BlockPool pool, AllocationTable allocations, BlockChangeLog changes) {
+        this.pool = pool;
+        this.allocations = allocations;
+        this.changes = changes;
+    }
+
+    // Returns the blocks moved by this step; a step that reaches the end of the pool completes a cycle.
+    public synchronized int step(int maxBlocks, long maxNanos) {
+        if (maxBlocks <= 0 || maxNanos <= 0) {
+            throw new IllegalArgumentException("Compaction budget must be positive");
+        }
+        long deadline = System.nanoTime() + maxNanos;
+        int moved = 0;
+        while (moved < maxBlocks && System.nanoTime() - deadline < 0) {
+            int hole = pool.nextFree(cursor);
+            int used = hole == -1 ? pool.capacity() : pool.nextUsed(hole);
+            if (used == pool.capacity()) {
+                finishCycle();
+                break;
+            }
+            if (pool.arenaIndex(hole) != pool.arenaIndex(used)) {
+                cursor = used;
+                continue;
+            }
+
+            AllocationHandle handle = allocations.get(used);
+            if (handle == null || handle.getKind() != AllocationKind.FIT || handle.isPinned()) {
+                int next = pool.nextFree(used);
+                if (next == -1) {
+                    finishCycle();
+                    break;
+                }
+                cursor = next;
+                continue;
+            }
+            if (slide(handle, hole)) {
+                moved += handle.getLength();
+                totalAllocationsMoved++;
+            }
+            cursor = hole;
+        }
+        totalBlocksMoved += moved;
+        cycleBlocksMoved += moved;
+        return moved;
+    }
+
+    // Told about every move, on the compacting thread, after the allocation has been re-keyed.
+    public void setRelocationListener(RelocationListener listener) {
+        this.listener = listener;
+    }
+
+    // Position of the next step, or 0 at the start of a cycle.
+    public synchronized int cursor() {
+        return cursor;
+    }
+
+    public synchronized long cycles() {
+        return cycles;
+    }
+
+    public synchronized long totalBlocksMoved() {
+        return totalBlocksMoved;
+    }
+
+    public synchronized long totalAllocationsMoved() {
+        return totalAllocationsMoved;
+    }
+
+    public synchronized long lastCycleBlocksMoved() {
+        return lastCycleBlocksMoved;
+    }
+
+    // 0 when all free blocks form one hole, approaching 1 as they scatter into small holes.
+    public double fragmentationIndex() {
+        int free = pool.freeCount();
+        return free == 0 ? 0 : 1 - (double) pool.largestHole() / free;
+    }
+
+    // The handle is re-keyed under its new start; a concurrent free that wins the race leaves it alone.
+    private boolean slide(AllocationHandle handle, int to) {
+        AllocationHandle removed = allocations.remove(handle.getStart());
+        if (removed == null) {
+            return false;
+        }
+        if (removed.getKind() != AllocationKind.FIT || removed.isPinned() || removed.getLength() != handle.getLength()
+                || removed.getOwner() != handle.getOwner()) {
+            allocations.add(removed.getStart(), removed.getLength(), removed.getOwner(), removed.getKind(),
+                    removed.getPinState());
+            return false;
+        }
+        if (!pool.relocate(removed.getStart(), to, removed.getLength())) {
+            allocations.add(removed.getStart(), removed.getLength(), removed.getOwner(), removed.getKind());
+            return false;
+        }
+        allocations.add(to, removed.getLength(), removed.getOwner(), AllocationKind.FIT);
+        // Slides only move down, so one range covers both the new and the vacated blocks.
+        changes.record(to, removed.getStart() + removed.getLength() - to);
+        RelocationListener listener = this.listener;
+        if (listener != null) {
+            listener.relocated(removed.getStart(), to);
+        }
+        return true;
+    }
+
+    private void finishCycle() {
+        cursor = 0;
+        cycles++;
+        lastCycleBlocksMoved = cycleBlocksMoved;
+        cycleBlocksMoved = 0;
+    }
+}
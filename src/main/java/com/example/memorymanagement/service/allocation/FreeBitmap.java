@@ -0,0 +1,162 @@
+package com.example.memorymanagement.service.allocation;
+
+public class FreeBitmap {
+    private final long[] words;
+    private final int capacity;
+    private int freeCount;
+
+    // A set bit means the block is free, so free runs are found with numberOfTrailingZeros.
+    public FreeBitmap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+        this.capacity = capacity;
+        this.words = new long[(capacity + 63) >>> 6];
+        markFree(0, capacity);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int freeCount() {
+        return freeCount;
+    }
+
+    public int usedCount() {
+        return capacity - freeCount;
+    }
+
+    public boolean isFree(int index) {
+        checkIndex(index);
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public boolean isRangeFree(int from, int length) {
+        checkRange(from, length);
+        return length == 0 || nextUsed(from) >= from + length;
+    }
+
+    public void markUsed(int from, int length) {
+        checkRange(from, length);
+        int end = from + length;
+        while (from < end) {
+            int w = from >>> 6;
+            int bits = Math.min(64 - (from & 63), end - from);
+            long mask = rangeMask(from & 63, bits);
+            freeCount -= Long.bitCount(words[w] & mask);
+            words[w] &= ~mask;
+            from += bits;
+        }
+    }
+
+    public void markFree(int from, int length) {
+        checkRange(from, length);
+        int end = from + length;
+        while (from < end) {
+            int w = from >>> 6;
+            int bits = Math.min(64 - (from & 63), end - from);
+            long mask = rangeMask(from & 63, bits);
+            freeCount += Long.bitCount(~words[w] & mask);
+            words[w] |= mask;
+            from += bits;
+        }
+    }
+
+    // Index of the first free block at or after from, or -1 if there is none.
+    public int nextFree(int from) {
+        if (from >= capacity) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = words[w] & (-1L << from);
+        while (word == 0) {
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    // Index of the first used block at or after from, or capacity if the rest of the pool is free.
+    public int nextUsed(int from) {
+        if (from >= capacity) {
+            return capacity;
+        }
+        int w = from >>> 6;
+        long word = ~words[w] & (-1L << from);
+        while (word == 0) {
+            if (++w == words.length) {
+                return capacity;
+            }
+            word = ~words[w];
+        }
+        return Math.min(capacity, (w << 6) + Long.numberOfTrailingZeros(word));
+    }
+
+    public int findFirstFit(int size) {
+        int start = nextFree(0);
+        while (start != -1) {
+            int end = nextUsed(start);
+            if (end - start >= size) {
+                return start;
+            }
+            start = nextFree(end);
+        }
+        return -1;
+    }
+
+    public int findBestFit(int size) {
+        int bestStart = -1;
+        int bestLength = Integer.MAX_VALUE;
+        int start = nextFree(0);
+        while (start != -1) {
+            int end = nextUsed(start);
+            int length = end - start;
+            if (length >= size && length < bestLength) {
+                bestStart = start;
+                bestLength = length;
+                if (length == size) {
+                    break;
+                }
+            }
+            start = nextFree(end);
+        }
+        return bestStart;
+    }
+
+    public int findWorstFit(int size) {
+        int worstStart = -1;
+        int worstLength = 0;
+        int start = nextFree(0);
+        while (start != -1) {
+            int end = nextUsed(start);
+            int length = end - start;
+            if (length >= size && length > worstLength) {
+                worstStart = start;
+                worstLength = length;
+            }
+            start = nextFree(end);
+        }
+        return worstStart;
+    }
+
+    private static long rangeMask(int offset, int bits) {
+        long mask = bits == 64 ? -1L : (1L << bits) - 1;
+        return mask << offset;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= capacity) {
+            throw new IndexOutOfBoundsException("Block " + index + " is outside the pool of " + capacity);
+        }
+    }
+
+    private void checkRange(int from, int length) {
+        if (from < 0 || length < 0 || from > capacity - length) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + from + "+" + length
+                    + ") is outside the pool of " + capacity);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.memorymanagement.service.allocation;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+public class FreeExtentIndex {
+    // Free holes by start offset, for coalescing with neighbours.
+    private final TreeMap<Integer, Integer> byStart = new TreeMap<>();
+    // The same holes keyed by (length << 32 | start), so the smallest fitting hole is a ceiling lookup.
+    private final TreeSet<Long> bySize = new TreeSet<>();
+    // Hole counts by size class: class k holds the holes of 2^k up to 2^(k+1) - 1 blocks.
+    private final int[] holesBySizeClass = new int[PoolStatistics.SIZE_CLASSES];
+
+    public FreeExtentIndex(int capacity) {
+        if (capacity > 0) {
+            addHole(0, capacity);
+        }
+    }
+
+    public int holeCount() {
+        return byStart.size();
+    }
+
+    public int largestHole() {
+        return bySize.isEmpty() ? 0 : length(bySize.last());
+    }
+
+    // Adds this index's hole counts per size class into histogram.
+    public void addHoleSizes(int[] histogram) {
+        for (int i = 0; i < holesBySizeClass.length; i++) {
+            histogram[i] += holesBySizeClass[i];
+        }
+    }
+
+    public int findBestFit(int size) {
+        Long key = bySize.ceiling(sizeKey(size, 0));
+        return key == null ? -1 : start(key);
+    }
+
+    public int findWorstFit(int size) {
+        if (bySize.isEmpty()) {
+            return -1;
+        }
+        long key = bySize.last();
+        return length(key) >= size ? start(key) : -1;
+    }
+
+    // Removes [start, start + length) from the hole that contains it, keeping whatever is left on either side.
+    public void reserve(int start, int length) {
+        Map.Entry<Integer, Integer> hole = byStart.floorEntry(start);
+        if (hole == null || hole.getKey() + hole.getValue() < start + length) {
+            throw new IllegalStateException("Range [" + start + ", " + (start + length) + ") is not free");
+        }
+        int holeStart = hole.getKey();
+        int holeEnd = holeStart + hole.getValue();
+        removeHole(holeStart, hole.getValue());
+        if (start > holeStart) {
+            addHole(holeStart, start - holeStart);
+        }
+        if (start + length < holeEnd) {
+            addHole(start + length, holeEnd - start - length);
+        }
+    }
+
+    // Returns [start, start + length) to the index, merging it with adjacent free holes.
+    public void release(int start, int length) {
+        int mergedStart = start;
+        int mergedEnd = start + length;
+
+        Map.Entry<Integer, Integer> before = byStart.floorEntry(start);
+        if (before != null && before.getKey() + before.getValue() == start) {
+            mergedStart = before.getKey();
+            removeHole(before.getKey(), before.getValue());
+        }
+        Integer afterLength = byStart.get(mergedEnd);
+        if (afterLength != null) {
+            removeHole(mergedEnd, afterLength);
+            mergedEnd += afterLength;
+        }
+        addHole(mergedStart, mergedEnd - mergedStart);
+    }
+
+    private void addHole(int start, int length) {
+        byStart.put(start, length);
+        bySize.add(sizeKey(length, start));
+        holesBySizeClass[PoolStatistics.sizeClass(length)]++;
+    }
+
+    private void removeHole(int start, int length) {
+        byStart.remove(start);
+        bySize.remove(sizeKey(length, start));
+        holesBySizeClass[PoolStatistics.sizeClass(length)]--;
+    }
+
+    private static long sizeKey(int length, int start) {
+        return ((long) length << 32) | (start & 0xFFFFFFFFL);
+    }
+
+    private static int length(long key) {
+        return (int) (key >>> 32);
+    }
+
+    private static int start(long key) {
+        return (int) key;
+    }
+}
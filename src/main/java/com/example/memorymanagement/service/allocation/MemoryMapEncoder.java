@@ -0,0 +1,89 @@
+package com.example.memorymanagement.service.allocation;
+
+import com.example.memorymanagement.util.IntIntHashMap;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+// Compact binary memory map, a few bytes per run of blocks instead of a JSON object per block.
+// Layout: the ASCII magic "MMAP" and a format byte, then unsigned LEB128 varints:
+//   block count, change-log version,
+//   owner count, then each owner id (zigzag-encoded),
+//   extents until their lengths add up to the block count: length, then state, where
+//   0 = free, 1 = allocated without an owner and 2 + i = owned by owner i.
+public final class MemoryMapEncoder implements AllocationEngine.ExtentVisitor {
+    public static final String MEDIA_TYPE = "application/vnd.memory-map";
+    public static final int FORMAT = 1;
+
+    private static final int FREE = 0;
+    private static final int UNOWNED = 1;
+
+    private final IntIntHashMap ownerIndex = new IntIntHashMap(16, -1);
+    private int[] owners = new int[16];
+    private int ownerCount;
+    // Pairs of (length, state); the dictionary has to be complete before the first extent is written.
+    private int[] extents = new int[64];
+    private int extentCount;
+
+    private MemoryMapEncoder() {
+    }
+
+    public static byte[] encode(AllocationEngine engine, long version) {
+        MemoryMapEncoder encoder = new MemoryMapEncoder();
+        engine.visitExtents(encoder);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 + encoder.ownerCount * 3 + encoder.extentCount * 4);
+        out.write('M');
+        out.write('M');
+        out.write('A');
+        out.write('P');
+        out.write(FORMAT);
+        writeVarint(out, engine.capacity());
+        writeVarint(out, version);
+        writeVarint(out, encoder.ownerCount);
+        for (int i = 0; i < encoder.ownerCount; i++) {
+            int owner = encoder.owners[i];
+            writeVarint(out, ((owner << 1) ^ (owner >> 31)) & 0xFFFFFFFFL);
+        }
+        for (int i = 0; i < encoder.extentCount * 2; i++) {
+            writeVarint(out, encoder.extents[i]);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public void extent(int start, int length, boolean free, int owner) {
+        int state;
+        if (free) {
+            state = FREE;
+        } else if (owner == AllocationTable.NO_OWNER) {
+            state = UNOWNED;
+        } else {
+            int index = ownerIndex.get(owner);
+            if (index == -1) {
+                index = ownerCount++;
+                ownerIndex.put(owner, index);
+                if (index == owners.length) {
+                    owners = Arrays.copyOf(owners, index * 2);
+                }
+                owners[index] = owner;
+            }
+            state = 2 + index;
+        }
+        int at = extentCount * 2;
+        if (at == extents.length) {
+            extents = Arrays.copyOf(extents, at * 2);
+        }
+        extents[at] = length;
+        extents[at + 1] = state;
+        extentCount++;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.memorymanagement.service.allocation;
+
+// Whether compaction may move an allocation. Only MOVABLE ones move; the rest stay where they are because
+// someone still refers to them by their start.
+public enum PinState {
+    MOVABLE,
+    PINNED,
+    // Fresh from allocatePinned; its caller has not registered it yet.
+    PENDING,
+    // Registered by the caller but not yet applied; becomes MOVABLE or PINNED when it is.
+    QUEUED_MOVABLE,
+    QUEUED_PINNED;
+
+    // Settled allocations are known to whoever registered them and may be freed by them.
+    public boolean isSettled() {
+        return this == MOVABLE || this == PINNED;
+    }
+
+    public boolean isQueued() {
+        return this == QUEUED_MOVABLE || this == QUEUED_PINNED;
+    }
+
+    public PinState settled() {
+        switch (this) {
+            case QUEUED_MOVABLE:
+                return MOVABLE;
+            case QUEUED_PINNED:
+                return PINNED;
+            default:
+                return this;
+        }
+    }
+}
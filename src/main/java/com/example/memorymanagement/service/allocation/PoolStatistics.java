@@ -0,0 +1,74 @@
+package com.example.memorymanagement.service.allocation;
+
+// Immutable snapshot of the pool's free space. BlockPool hands out the same instance until an arena
+// changes, so reading statistics neither scans the pool nor allocates.
+public final class PoolStatistics {
+    // Enough size classes for any int-sized hole.
+    public static final int SIZE_CLASSES = 32;
+
+    private final long modifications;
+    private final int capacity;
+    private final int arenaCount;
+    private final int freeCount;
+    private final int holeCount;
+    private final int largestHole;
+    private final int[] holesBySizeClass;
+
+    PoolStatistics(long modifications, int capacity, int arenaCount, int freeCount, int holeCount, int largestHole,
+                   int[] holesBySizeClass) {
+        this.modifications = modifications;
+        this.capacity = capacity;
+        this.arenaCount = arenaCount;
+        this.freeCount = freeCount;
+        this.holeCount = holeCount;
+        this.largestHole = largestHole;
+        this.holesBySizeClass = holesBySizeClass;
+    }
+
+    // Class k covers holes of 2^k up to 2^(k+1) - 1 blocks.
+    public static int sizeClass(int holeLength) {
+        return 31 - Integer.numberOfLeadingZeros(holeLength);
+    }
+
+    long modifications() {
+        return modifications;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int arenaCount() {
+        return arenaCount;
+    }
+
+    public int freeCount() {
+        return freeCount;
+    }
+
+    public int usedCount() {
+        return capacity - freeCount;
+    }
+
+    public int holeCount() {
+        return holeCount;
+    }
+
+    public int largestHole() {
+        return largestHole;
+    }
+
+    // 0 when all free blocks form one hole, approaching 1 as they scatter into small holes.
+    public double fragmentationIndex() {
+        return freeCount == 0 ? 0 : 1 - (double) largestHole / freeCount;
+    }
+
+    public int holesInSizeClass(int sizeClass) {
+        return holesBySizeClass[sizeClass];
+    }
+
+    // One past the largest size class with any holes, 0 when the pool is full.
+    public int sizeClassLimit() {
+        return largestHole == 0 ? 0 : sizeClass(largestHole) + 1;
+    }
+}
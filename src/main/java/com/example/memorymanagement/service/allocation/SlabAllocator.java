@@ -0,0 +1,256 @@
+package com.example.memorymanagement.service.allocation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class SlabAllocator {
+    private static final int[] SIZE_CLASSES = {1, 2, 4, 8, 16};
+    private static final int SLAB_BLOCKS = 64;
+    private static final int MAGAZINE_ROUNDS = 16;
+    private static final int BATCH = MAGAZINE_ROUNDS / 2;
+
+    private final BlockPool pool;
+    private final SizeClass[] classes;
+    // Size class index + 1 for every slab-aligned region that has been carved, 0 otherwise.
+    private final AtomicIntegerArray slabClass;
+    // One bit per object start that is currently handed out.
+    private final AtomicLongArray inUse;
+    private final byte[] requestedSize;
+    private final ThreadLocal<Magazine[]> magazines;
+
+    public SlabAllocator(BlockPool pool) {
+        this.pool = pool;
+        this.classes = new SizeClass[SIZE_CLASSES.length];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = new SizeClass(SIZE_CLASSES[i]);
+        }
+        this.slabClass = new AtomicIntegerArray(pool.capacity() / SLAB_BLOCKS + 1);
+        this.inUse = new AtomicLongArray((pool.capacity() + 63) >>> 6);
+        this.requestedSize = new byte[pool.capacity()];
+        this.magazines = ThreadLocal.withInitial(() -> {
+            Magazine[] perClass = new Magazine[SIZE_CLASSES.length];
+            for (int i = 0; i < perClass.length; i++) {
+                perClass[i] = new Magazine();
+            }
+            return perClass;
+        });
+    }
+
+    public int allocate(int size) {
+        int classIndex = classFor(size);
+        if (classIndex == -1) {
+            return -1;
+        }
+        SizeClass sizeClass = classes[classIndex];
+        Magazine magazine = magazines.get()[classIndex];
+        sizeClass.allocations.increment();
+
+        if (magazine.count > 0) {
+            sizeClass.magazineHits.increment();
+        } else if (!sizeClass.refill(magazine)) {
+            sizeClass.failures.increment();
+            return -1;
+        }
+
+        int object = magazine.rounds[--magazine.count];
+        requestedSize[object] = (byte) size;
+        setInUse(object, true);
+        sizeClass.inUse.increment();
+        sizeClass.requestedBlocks.add(size);
+        return object;
+    }
+
+    public boolean free(int start) {
+        if (!isAllocationStart(start)) {
+            return false;
+        }
+        int classIndex = slabClass.get(start / SLAB_BLOCKS) - 1;
+        SizeClass sizeClass = classes[classIndex];
+        if (!setInUse(start, false)) {
+            return false;
+        }
+        sizeClass.inUse.decrement();
+        sizeClass.requestedBlocks.add(-requestedSize[start]);
+
+        Magazine magazine = magazines.get()[classIndex];
+        if (magazine.count == MAGAZINE_ROUNDS) {
+            sizeClass.flush(magazine);
+        }
+        magazine.rounds[magazine.count++] = start;
+        return true;
+    }
+
+    public boolean owns(int index) {
+        return index >= 0 && index < pool.capacity() && slabClass.get(index / SLAB_BLOCKS) != 0;
+    }
+
+    public boolean isAllocationStart(int index) {
+        if (!owns(index)) {
+            return false;
+        }
+        int objectSize = SIZE_CLASSES[slabClass.get(index / SLAB_BLOCKS) - 1];
+        return index % objectSize == 0 && isInUse(index);
+    }
+
+    // Blocks granted to the object starting at start, or 0 if no slab object starts there.
+    public int objectSize(int start) {
+        return isAllocationStart(start) ? SIZE_CLASSES[slabClass.get(start / SLAB_BLOCKS) - 1] : 0;
+    }
+
+    public boolean isFree(int index) {
+        if (!owns(index)) {
+            return false;
+        }
+        int objectSize = SIZE_CLASSES[slabClass.get(index / SLAB_BLOCKS) - 1];
+        return !isInUse(index - index % objectSize);
+    }
+
+    public int freeBlocks() {
+        long free = 0;
+        for (SizeClass sizeClass : classes) {
+            free += (sizeClass.totalObjects() - sizeClass.inUse.sum()) * sizeClass.objectSize;
+        }
+        return (int) free;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long slabBlocks = 0;
+        long usedBlocks = 0;
+        for (SizeClass sizeClass : classes) {
+            long total = sizeClass.totalObjects();
+            long used = sizeClass.inUse.sum();
+            long allocations = sizeClass.allocations.sum();
+            slabBlocks += (long) sizeClass.slabs * SLAB_BLOCKS;
+            usedBlocks += used * sizeClass.objectSize;
+
+            Map<String, Object> classStats = new LinkedHashMap<>();
+            classStats.put("slabs", sizeClass.slabs);
+            classStats.put("objects", total);
+            classStats.put("objectsInUse", used);
+            classStats.put("utilizationPercentage", total > 0 ? Math.round((double) used / total * 100) : 0);
+            classStats.put("allocations", allocations);
+            classStats.put("magazineHitRate", allocations > 0
+                    ? Math.round((double) sizeClass.magazineHits.sum() / allocations * 100) : 0);
+            classStats.put("depotRefills", sizeClass.refills.sum());
+            classStats.put("depotFlushes", sizeClass.flushes.sum());
+            classStats.put("failures", sizeClass.failures.sum());
+            classStats.put("internalFragmentation", used * sizeClass.objectSize - sizeClass.requestedBlocks.sum());
+            stats.put(sizeClass.objectSize + "-block", classStats);
+        }
+        stats.put("slabBlocks", slabBlocks);
+        stats.put("utilizationPercentage", slabBlocks > 0 ? Math.round((double) usedBlocks / slabBlocks * 100) : 0);
+        return stats;
+    }
+
+    private static int classFor(int size) {
+        for (int i = 0; i < SIZE_CLASSES.length; i++) {
+            if (size > 0 && size <= SIZE_CLASSES[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isInUse(int index) {
+        return (inUse.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    private boolean setInUse(int index, boolean used) {
+        int w = index >>> 6;
+        long bit = 1L << index;
+        while (true) {
+            long word = inUse.get(w);
+            if (((word & bit) != 0) == used) {
+                return false;
+            }
+            if (inUse.compareAndSet(w, word, used ? word | bit : word & ~bit)) {
+                return true;
+            }
+        }
+    }
+
+    private static class Magazine {
+        final int[] rounds = new int[MAGAZINE_ROUNDS];
+        int count;
+    }
+
+    private class SizeClass {
+        final int objectSize;
+        final LongAdder allocations = new LongAdder();
+        final LongAdder magazineHits = new LongAdder();
+        final LongAdder refills = new LongAdder();
+        final LongAdder flushes = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder inUse = new LongAdder();
+        final LongAdder requestedBlocks = new LongAdder();
+        // Shared depot of free objects, guarded by this size class.
+        int[] depot = new int[MAGAZINE_ROUNDS];
+        int depotCount;
+        volatile int slabs;
+
+        SizeClass(int objectSize) {
+            this.objectSize = objectSize;
+        }
+
+        long totalObjects() {
+            return (long) slabs * (SLAB_BLOCKS / objectSize);
+        }
+
+        synchronized boolean refill(Magazine magazine) {
+            if (depotCount == 0 && !carveSlab()) {
+                return false;
+            }
+            refills.increment();
+            int take = Math.min(BATCH, depotCount);
+            depotCount -= take;
+            System.arraycopy(depot, depotCount, magazine.rounds, magazine.count, take);
+            magazine.count += take;
+            return true;
+        }
+
+        synchronized void flush(Magazine magazine) {
+            flushes.increment();
+            magazine.count -= BATCH;
+            ensureDepotCapacity(depotCount + BATCH);
+            System.arraycopy(magazine.rounds, magazine.count, depot, depotCount, BATCH);
+            depotCount += BATCH;
+        }
+
+        private boolean carveSlab() {
+            int start = pool.alignedFit(SLAB_BLOCKS, SLAB_BLOCKS);
+            if (start == -1) {
+                return false;
+            }
+            int objects = SLAB_BLOCKS / objectSize;
+            ensureDepotCapacity(depotCount + objects);
+            // Push in reverse so objects are handed out in address order.
+            for (int i = objects - 1; i >= 0; i--) {
+                depot[depotCount++] = start + i * objectSize;
+            }
+            slabClass.set(start / SLAB_BLOCKS, indexOf(objectSize) + 1);
+            slabs++;
+            return true;
+        }
+
+        private void ensureDepotCapacity(int capacity) {
+            if (capacity > depot.length) {
+                int[] grown = new int[Math.max(capacity, depot.length * 2)];
+                System.arraycopy(depot, 0, grown, 0, depotCount);
+                depot = grown;
+            }
+        }
+    }
+
+    private static int indexOf(int objectSize) {
+        for (int i = 0; i < SIZE_CLASSES.length; i++) {
+            if (SIZE_CLASSES[i] == objectSize) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Not a slab size class: " + objectSize);
+    }
+}
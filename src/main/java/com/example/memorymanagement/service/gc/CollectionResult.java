@@ -0,0 +1,44 @@
+package com.example.memorymanagement.service.gc;
+
+public class CollectionResult {
+    private final GcMode mode;
+    private final long pauseNanos;
+    private final int objectsVisited;
+    private final int objectsReclaimed;
+    private final long blocksReclaimed;
+    private final int promoted;
+
+    CollectionResult(GcMode mode, long pauseNanos, int objectsVisited, int objectsReclaimed,
+                     long blocksReclaimed, int promoted) {
+        this.mode = mode;
+        this.pauseNanos = pauseNanos;
+        this.objectsVisited = objectsVisited;
+        this.objectsReclaimed = objectsReclaimed;
+        this.blocksReclaimed = blocksReclaimed;
+        this.promoted = promoted;
+    }
+
+    public GcMode getMode() {
+        return mode;
+    }
+
+    public long getPauseNanos() {
+        return pauseNanos;
+    }
+
+    public int getObjectsVisited() {
+        return objectsVisited;
+    }
+
+    public int getObjectsReclaimed() {
+        return objectsReclaimed;
+    }
+
+    public long getBlocksReclaimed() {
+        return blocksReclaimed;
+    }
+
+    public int getPromoted() {
+        return promoted;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.memorymanagement.service.gc;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+// Snapshot-at-the-beginning marking with a mutator running alongside. While marking is active the
+// mutator's write barrier logs every reference it overwrites into local buffers that are handed to the
+// markers, and new objects are allocated already marked, so everything reachable when marking started
+// (plus everything allocated since) ends up marked. A short final pause stops the mutator and drains
+// the remaining buffers.
+public class ConcurrentMarker {
+    private static final int SATB_BUFFER = 256;
+    private static final int WALK_STEPS = 8;
+
+    private final SyntheticHeap heap;
+    private final MarkBitmap marks;
+    private final ConcurrentLinkedQueue<int[]> satb = new ConcurrentLinkedQueue<>();
+    private final ParallelMarker marker;
+    private volatile boolean marking;
+    private volatile boolean stopMutator;
+
+    private long mutatorOperations;
+    private long satbEntries;
+    private long allocatedDuringMark;
+    private long concurrentNanos;
+    private long remarkNanos;
+
+    public ConcurrentMarker(SyntheticHeap heap, int threads) {
+        this.heap = heap;
+        this.marks = new MarkBitmap(heap.capacity());
+        this.marker = new ParallelMarker(heap, marks, threads, satb);
+    }
+
+    public void run(ExecutorService executor, long seed) throws InterruptedException {
+        marking = true;
+        stopMutator = false;
+        Future<?> mutator = executor.submit(() -> mutate(new Random(seed)));
+
+        long startTime = System.nanoTime();
+        marker.mark(heap.roots(), executor);
+        concurrentNanos = System.nanoTime() - startTime;
+
+        long pauseStart = System.nanoTime();
+        stopMutator = true;
+        try {
+            mutator.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Mutator failed", e.getCause());
+        }
+        marker.mark(new int[0], executor);
+        marking = false;
+        remarkNanos = System.nanoTime() - pauseStart;
+    }
+
+    public MarkBitmap marks() {
+        return marks;
+    }
+
+    public long mutatorOperations() {
+        return mutatorOperations;
+    }
+
+    public long satbEntries() {
+        return satbEntries;
+    }
+
+    public long allocatedDuringMark() {
+        return allocatedDuringMark;
+    }
+
+    public long concurrentNanos() {
+        return concurrentNanos;
+    }
+
+    public long remarkNanos() {
+        return remarkNanos;
+    }
+
+    public long steals() {
+        return marker.steals();
+    }
+
+    // The mutator only touches objects it reaches by walking from a root, as a real program would.
+    private void mutate(Random random) {
+        int[] buffer = new int[SATB_BUFFER];
+        int buffered = 0;
+        int[] roots = heap.roots();
+        int fields = heap.fieldsPerObject();
+        long operations = 0;
+        long logged = 0;
+        long allocated = 0;
+
+        while (!stopMutator) {
+            int object = walk(roots[random.nextInt(roots.length)], random);
+            int other = walk(roots[random.nextInt(roots.length)], random);
+            int value = other;
+            if (random.nextBoolean()) {
+                int created = heap.allocate();
+                if (created != SyntheticHeap.NULL) {
+                    marks.tryMark(created);
+                    heap.setField(created, random.nextInt(fields), other);
+                    value = created;
+                    allocated++;
+                }
+            } else if (random.nextInt(4) == 0) {
+                value = SyntheticHeap.NULL;
+            }
+
+            int field = random.nextInt(fields);
+            if (marking) {
+                int previous = heap.field(object, field);
+                if (previous != SyntheticHeap.NULL) {
+                    buffer[buffered++] = previous;
+                    logged++;
+                    if (buffered == SATB_BUFFER) {
+                        satb.add(buffer.clone());
+                        buffered = 0;
+                    }
+                }
+            }
+            heap.setField(object, field, value);
+            operations++;
+        }
+        if (buffered > 0) {
+            satb.add(Arrays.copyOf(buffer, buffered));
+        }
+        mutatorOperations = operations;
+        satbEntries = logged;
+        allocatedDuringMark = allocated;
+    }
+
+    private int walk(int object, Random random) {
+        int fields = heap.fieldsPerObject();
+        for (int step = 0; step < WALK_STEPS; step++) {
+            int next = heap.field(object, random.nextInt(fields));
+            if (next == SyntheticHeap.NULL) {
+                break;
+            }
+            object = next;
+        }
+        return object;
+    }
+}
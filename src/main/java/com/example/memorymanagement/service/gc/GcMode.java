@@ -0,0 +1,19 @@
+package com.example.memorymanagement.service.gc;
+
+public enum GcMode {
+    // Marks from the roots through the whole heap and sweeps every generation.
+    FULL,
+    // Marks only young objects, from young roots and the remembered set, and sweeps only the young generation.
+    YOUNG;
+
+    public static GcMode from(String name) {
+        switch (name.toLowerCase()) {
+            case "full":
+                return FULL;
+            case "young":
+                return YOUNG;
+            default:
+                throw new IllegalArgumentException("Unknown collection mode: " + name);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.memorymanagement.service.gc;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Chase-Lev work-stealing deque of non-negative ints. The owning thread pushes and pops at the
+// bottom; other threads steal from the top. Only top is contended, and only for the last element.
+class IntWorkStealingDeque {
+    static final int EMPTY = -1;
+    static final int ABORT = -2;
+
+    private volatile int[] array = new int[1024];
+    private volatile long bottom;
+    private final AtomicLong top = new AtomicLong();
+
+    // Owner only.
+    void push(int value) {
+        long b = bottom;
+        long t = top.get();
+        int[] a = array;
+        if (b - t >= a.length - 1) {
+            int[] grown = new int[a.length * 2];
+            for (long i = t; i < b; i++) {
+                grown[(int) (i & (grown.length - 1))] = a[(int) (i & (a.length - 1))];
+            }
+            array = grown;
+            a = grown;
+        }
+        a[(int) (b & (a.length - 1))] = value;
+        bottom = b + 1;
+    }
+
+    // Owner only.
+    int pop() {
+        long b = bottom - 1;
+        int[] a = array;
+        bottom = b;
+        long t = top.get();
+        if (t > b) {
+            bottom = t;
+            return EMPTY;
+        }
+        int value = a[(int) (b & (a.length - 1))];
+        if (t == b) {
+            if (!top.compareAndSet(t, t + 1)) {
+                value = EMPTY;
+            }
+            bottom = t + 1;
+        }
+        return value;
+    }
+
+    // Any thread; ABORT means another thread won the race and the caller may retry.
+    int steal() {
+        long t = top.get();
+        long b = bottom;
+        if (t >= b) {
+            return EMPTY;
+        }
+        int[] a = array;
+        int value = a[(int) (t & (a.length - 1))];
+        return top.compareAndSet(t, t + 1) ? value : ABORT;
+    }
+
+    boolean isEmpty() {
+        return top.get() >= bottom;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.memorymanagement.service.gc;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// One mark bit per object, set with CAS so that exactly one marking thread claims each object.
+public class MarkBitmap {
+    private final AtomicLongArray words;
+
+    public MarkBitmap(int objects) {
+        this.words = new AtomicLongArray((objects + 63) >>> 6);
+    }
+
+    // Returns true if this call set the bit.
+    public boolean tryMark(int object) {
+        int index = object >>> 6;
+        long bit = 1L << object;
+        while (true) {
+            long word = words.get(index);
+            if ((word & bit) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(index, word, word | bit)) {
+                return true;
+            }
+        }
+    }
+
+    public boolean isMarked(int object) {
+        return (words.get(object >>> 6) & (1L << object)) != 0;
+    }
+
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < words.length(); i++) {
+            count += Long.bitCount(words.get(i));
+        }
+        return count;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.memorymanagement.service.gc;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+// Stop-the-world mark-sweep over an ObjectGraph. Marking uses an explicit stack and a bitmap with one
+// bit per heap block, set at each reachable object's start block. The caller holds whatever lock
+// keeps the graph and the heap still for the duration of a collection.
+public class MarkSweepCollector {
+    private final long[] markBits;
+    private int[] markStack = new int[256];
+    private int stackSize;
+
+    public MarkSweepCollector(int heapBlocks) {
+        this.markBits = new long[(heapBlocks + 63) >>> 6];
+    }
+
+    // Survivors of tenureAge collections are promoted. free releases an object's blocks on the heap
+    // and reports whether it was still allocated.
+    public CollectionResult collect(ObjectGraph graph, GcMode mode, int tenureAge, IntPredicate free) {
+        long startTime = System.nanoTime();
+        boolean young = mode == GcMode.YOUNG;
+        Arrays.fill(markBits, 0);
+        stackSize = 0;
+
+        for (int i = 0; i < graph.liveCount(); i++) {
+            int slot = graph.liveSlot(i);
+            if (graph.isRootSlot(slot) && (!young || !graph.isOld(slot))) {
+                markAndPush(graph, slot);
+            }
+            if (young && graph.isRemembered(slot)) {
+                pushYoungChildren(graph, slot);
+            }
+        }
+
+        int visited = 0;
+        while (stackSize > 0) {
+            int slot = markStack[--stackSize];
+            visited++;
+            for (int i = 0; i < graph.refCount(slot); i++) {
+                int target = graph.target(slot, i);
+                if (target != -1 && (!young || !graph.isOld(target)) && !isMarked(graph.startOf(target))) {
+                    markAndPush(graph, target);
+                }
+            }
+        }
+
+        int reclaimed = 0;
+        long blocksReclaimed = 0;
+        int promoted = 0;
+        for (int i = graph.liveCount() - 1; i >= 0; i--) {
+            int slot = graph.liveSlot(i);
+            if (young && graph.isOld(slot)) {
+                continue;
+            }
+            if (isMarked(graph.startOf(slot))) {
+                if (graph.survive(slot, tenureAge)) {
+                    promoted++;
+                }
+                continue;
+            }
+            if (free.test(graph.startOf(slot))) {
+                blocksReclaimed += graph.lengthOf(slot);
+            }
+            graph.removeSlot(slot);
+            reclaimed++;
+        }
+
+        for (int i = 0; i < graph.liveCount(); i++) {
+            graph.refreshRemembered(graph.liveSlot(i));
+        }
+        return new CollectionResult(mode, System.nanoTime() - startTime, visited, reclaimed, blocksReclaimed, promoted);
+    }
+
+    private void pushYoungChildren(ObjectGraph graph, int slot) {
+        for (int i = 0; i < graph.refCount(slot); i++) {
+            int target = graph.target(slot, i);
+            if (target != -1 && !graph.isOld(target) && !isMarked(graph.startOf(target))) {
+                markAndPush(graph, target);
+            }
+        }
+    }
+
+    private void markAndPush(ObjectGraph graph, int slot) {
+        int block = graph.startOf(slot);
+        markBits[block >>> 6] |= 1L << block;
+        if (stackSize == markStack.length) {
+            markStack = Arrays.copyOf(markStack, stackSize * 2);
+        }
+        markStack[stackSize++] = slot;
+    }
+
+    private boolean isMarked(int block) {
+        return (markBits[block >>> 6] & (1L << block)) != 0;
+    }
+}
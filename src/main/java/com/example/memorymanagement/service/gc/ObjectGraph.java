@@ -0,0 +1,289 @@
+package com.example.memorymanagement.service.gc;
+
+import com.example.memorymanagement.util.IntIntHashMap;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Heap objects are allocations, identified by their start block. Each object lives in a slot; a
+// reference stores the target's slot together with the slot's version, so references to an object
+// that was freed explicitly go dead instead of silently pointing at whatever reuses the slot.
+// New objects are young; addReference is the write barrier that keeps the remembered set of old
+// objects pointing at young ones. Not thread-safe.
+public class ObjectGraph {
+    private final IntIntHashMap slotByStart = new IntIntHashMap(64, -1);
+    private int[] start = new int[64];
+    private int[] length = new int[64];
+    private int[] version = new int[64];
+    private int[] age = new int[64];
+    private boolean[] root = new boolean[64];
+    private boolean[] old = new boolean[64];
+    private boolean[] remembered = new boolean[64];
+    private long[][] refs = new long[64][];
+    private int[] refCount = new int[64];
+    // Dense list of live slots, for iteration and random picks.
+    private int[] live = new int[64];
+    private int[] livePosition = new int[64];
+    private int liveCount;
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int slotLimit;
+    private int rootCount;
+    private int oldCount;
+    private int rememberedCount;
+
+    public int add(int startBlock, int blocks, boolean isRoot) {
+        remove(startBlock);
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : newSlot();
+        start[slot] = startBlock;
+        length[slot] = blocks;
+        age[slot] = 0;
+        old[slot] = false;
+        remembered[slot] = false;
+        refCount[slot] = 0;
+        root[slot] = isRoot;
+        if (isRoot) {
+            rootCount++;
+        }
+        livePosition[slot] = liveCount;
+        live[liveCount++] = slot;
+        slotByStart.put(startBlock, slot);
+        return slot;
+    }
+
+    public boolean contains(int startBlock) {
+        return slotByStart.containsKey(startBlock);
+    }
+
+    // Forgets an object freed outside the collector; returns false if it was not tracked.
+    public boolean remove(int startBlock) {
+        int slot = slotByStart.get(startBlock);
+        if (slot == -1) {
+            return false;
+        }
+        removeSlot(slot);
+        return true;
+    }
+
+    // Follows an allocation moved by compaction. An object still recorded at to was freed before the move
+    // and is dropped.
+    public void relocate(int from, int to) {
+        int slot = slotByStart.remove(from);
+        if (slot != -1) {
+            remove(to);
+            start[slot] = to;
+            slotByStart.put(to, slot);
+        }
+    }
+
+    public boolean setRoot(int startBlock, boolean isRoot) {
+        int slot = slotByStart.get(startBlock);
+        if (slot == -1) {
+            return false;
+        }
+        if (root[slot] != isRoot) {
+            root[slot] = isRoot;
+            rootCount += isRoot ? 1 : -1;
+        }
+        return true;
+    }
+
+    public boolean addReference(int fromBlock, int toBlock) {
+        int from = slotByStart.get(fromBlock);
+        int to = slotByStart.get(toBlock);
+        if (from == -1 || to == -1) {
+            return false;
+        }
+        if (refs[from] == null) {
+            refs[from] = new long[4];
+        } else if (refCount[from] == refs[from].length) {
+            refs[from] = Arrays.copyOf(refs[from], refCount[from] * 2);
+        }
+        refs[from][refCount[from]++] = reference(to);
+        if (old[from] && !old[to]) {
+            remember(from);
+        }
+        return true;
+    }
+
+    public boolean removeReference(int fromBlock, int toBlock) {
+        int from = slotByStart.get(fromBlock);
+        int to = slotByStart.get(toBlock);
+        if (from == -1 || to == -1) {
+            return false;
+        }
+        long target = reference(to);
+        for (int i = 0; i < refCount[from]; i++) {
+            if (refs[from][i] == target) {
+                refs[from][i] = refs[from][--refCount[from]];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int objectCount() {
+        return liveCount;
+    }
+
+    public int rootCount() {
+        return rootCount;
+    }
+
+    public int oldCount() {
+        return oldCount;
+    }
+
+    public int youngCount() {
+        return liveCount - oldCount;
+    }
+
+    public int rememberedSetSize() {
+        return rememberedCount;
+    }
+
+    // Start block of a random live object, or -1 if the heap is empty.
+    public int randomObject(Random random) {
+        return liveCount == 0 ? -1 : start[live[random.nextInt(liveCount)]];
+    }
+
+    // Drops one random outgoing reference of the object; returns false if it has none.
+    public boolean dropRandomReference(int startBlock, Random random) {
+        int slot = slotByStart.get(startBlock);
+        if (slot == -1 || refCount[slot] == 0) {
+            return false;
+        }
+        refs[slot][random.nextInt(refCount[slot])] = refs[slot][--refCount[slot]];
+        return true;
+    }
+
+    public boolean isRoot(int startBlock) {
+        int slot = slotByStart.get(startBlock);
+        return slot != -1 && root[slot];
+    }
+
+    // Accessors for the collector, by slot.
+
+    int liveCount() {
+        return liveCount;
+    }
+
+    int liveSlot(int index) {
+        return live[index];
+    }
+
+    int startOf(int slot) {
+        return start[slot];
+    }
+
+    int lengthOf(int slot) {
+        return length[slot];
+    }
+
+    boolean isRootSlot(int slot) {
+        return root[slot];
+    }
+
+    boolean isOld(int slot) {
+        return old[slot];
+    }
+
+    boolean isRemembered(int slot) {
+        return remembered[slot];
+    }
+
+    int refCount(int slot) {
+        return refCount[slot];
+    }
+
+    // Slot the i-th reference of an object points at, or -1 if the target has been freed.
+    int target(int slot, int i) {
+        long ref = refs[slot][i];
+        int target = (int) ref;
+        return version[target] == (int) (ref >>> 32) && livePosition[target] != -1 ? target : -1;
+    }
+
+    void removeSlot(int slot) {
+        slotByStart.remove(start[slot]);
+        if (root[slot]) {
+            rootCount--;
+        }
+        if (old[slot]) {
+            oldCount--;
+        }
+        forget(slot);
+        refs[slot] = null;
+        refCount[slot] = 0;
+        version[slot]++;
+
+        int position = livePosition[slot];
+        int last = live[--liveCount];
+        live[position] = last;
+        livePosition[last] = position;
+        livePosition[slot] = -1;
+        freeSlots[freeCount++] = slot;
+    }
+
+    // Survivors age; objects reaching the tenure age move to the old generation.
+    boolean survive(int slot, int tenureAge) {
+        if (old[slot] || ++age[slot] < tenureAge) {
+            return false;
+        }
+        old[slot] = true;
+        oldCount++;
+        return true;
+    }
+
+    // Keeps an old object in the remembered set only while it still points at a young object.
+    void refreshRemembered(int slot) {
+        boolean pointsYoung = false;
+        if (old[slot]) {
+            for (int i = 0; i < refCount[slot] && !pointsYoung; i++) {
+                int target = target(slot, i);
+                pointsYoung = target != -1 && !old[target];
+            }
+        }
+        if (pointsYoung) {
+            remember(slot);
+        } else {
+            forget(slot);
+        }
+    }
+
+    private void remember(int slot) {
+        if (!remembered[slot]) {
+            remembered[slot] = true;
+            rememberedCount++;
+        }
+    }
+
+    private void forget(int slot) {
+        if (remembered[slot]) {
+            remembered[slot] = false;
+            rememberedCount--;
+        }
+    }
+
+    private long reference(int slot) {
+        return (long) version[slot] << 32 | slot;
+    }
+
+    private int newSlot() {
+        if (slotLimit == start.length) {
+            int capacity = start.length * 2;
+            start = Arrays.copyOf(start, capacity);
+            length = Arrays.copyOf(length, capacity);
+            version = Arrays.copyOf(version, capacity);
+            age = Arrays.copyOf(age, capacity);
+            root = Arrays.copyOf(root, capacity);
+            old = Arrays.copyOf(old, capacity);
+            remembered = Arrays.copyOf(remembered, capacity);
+            refs = Arrays.copyOf(refs, capacity);
+            refCount = Arrays.copyOf(refCount, capacity);
+            live = Arrays.copyOf(live, capacity);
+            livePosition = Arrays.copyOf(livePosition, capacity);
+            freeSlots = Arrays.copyOf(freeSlots, capacity);
+        }
+        return slotLimit++;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.memorymanagement.service.gc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Parallel marking over a SyntheticHeap. Each worker traces depth-first from its own work-stealing
+// deque and steals from the others when it runs dry; marking ends once every worker is idle at the
+// same time. When a SATB queue is supplied, idle workers also drain the overwritten references the
+// mutator's write barrier logged there.
+public class ParallelMarker {
+    private final SyntheticHeap heap;
+    private final MarkBitmap marks;
+    private final int threads;
+    private final Queue<int[]> satb;
+    private final IntWorkStealingDeque[] deques;
+    private final AtomicInteger idle = new AtomicInteger();
+    private final AtomicLong steals = new AtomicLong();
+    private final AtomicLong scanned = new AtomicLong();
+
+    public ParallelMarker(SyntheticHeap heap, MarkBitmap marks, int threads, Queue<int[]> satb) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.heap = heap;
+        this.marks = marks;
+        this.threads = threads;
+        this.satb = satb;
+        this.deques = new IntWorkStealingDeque[threads];
+        for (int i = 0; i < threads; i++) {
+            deques[i] = new IntWorkStealingDeque();
+        }
+    }
+
+    // Single-threaded reference marker with a plain stack.
+    public static long markSerial(SyntheticHeap heap, MarkBitmap marks) {
+        int[] stack = new int[1024];
+        int size = 0;
+        long scanned = 0;
+        for (int root : heap.roots()) {
+            if (marks.tryMark(root)) {
+                if (size == stack.length) {
+                    stack = Arrays.copyOf(stack, size * 2);
+                }
+                stack[size++] = root;
+            }
+        }
+        int fields = heap.fieldsPerObject();
+        while (size > 0) {
+            int object = stack[--size];
+            scanned++;
+            for (int f = 0; f < fields; f++) {
+                int target = heap.field(object, f);
+                if (target != SyntheticHeap.NULL && marks.tryMark(target)) {
+                    if (size == stack.length) {
+                        stack = Arrays.copyOf(stack, size * 2);
+                    }
+                    stack[size++] = target;
+                }
+            }
+        }
+        return scanned;
+    }
+
+    // Marks everything reachable from the grey objects and returns once all workers are idle.
+    public void mark(int[] grey, ExecutorService executor) throws InterruptedException {
+        idle.set(0);
+        int next = 0;
+        for (int object : grey) {
+            if (marks.tryMark(object)) {
+                deques[next++ % threads].push(object);
+            }
+        }
+
+        List<Future<?>> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            final int id = i;
+            workers.add(executor.submit(() -> work(id)));
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Marking worker failed", e.getCause());
+            }
+        }
+    }
+
+    public long steals() {
+        return steals.get();
+    }
+
+    public long scanned() {
+        return scanned.get();
+    }
+
+    private void work(int id) {
+        IntWorkStealingDeque own = deques[id];
+        int fields = heap.fieldsPerObject();
+        long localScanned = 0;
+        while (true) {
+            int object = own.pop();
+            if (object == IntWorkStealingDeque.EMPTY) {
+                object = findWork(id, own);
+            }
+            if (object == IntWorkStealingDeque.EMPTY) {
+                if (awaitWork()) {
+                    continue;
+                }
+                break;
+            }
+            localScanned++;
+            for (int f = 0; f < fields; f++) {
+                int target = heap.field(object, f);
+                if (target != SyntheticHeap.NULL && marks.tryMark(target)) {
+                    own.push(target);
+                }
+            }
+        }
+        scanned.addAndGet(localScanned);
+    }
+
+    private int findWork(int id, IntWorkStealingDeque own) {
+        for (int k = 1; k < threads; k++) {
+            IntWorkStealingDeque victim = deques[(id + k) % threads];
+            while (true) {
+                int object = victim.steal();
+                if (object >= 0) {
+                    steals.incrementAndGet();
+                    return object;
+                }
+                if (object == IntWorkStealingDeque.EMPTY) {
+                    break;
+                }
+            }
+        }
+        if (satb != null) {
+            int[] buffer;
+            while ((buffer = satb.poll()) != null) {
+                for (int object : buffer) {
+                    if (marks.tryMark(object)) {
+                        own.push(object);
+                    }
+                }
+                int object = own.pop();
+                if (object != IntWorkStealingDeque.EMPTY) {
+                    return object;
+                }
+            }
+        }
+        return IntWorkStealingDeque.EMPTY;
+    }
+
+    // Returns false once every worker is idle, which can only happen when all deques are empty.
+    private boolean awaitWork() {
+        idle.incrementAndGet();
+        while (true) {
+            if (idle.get() == threads) {
+                return false;
+            }
+            if (hasWork()) {
+                idle.decrementAndGet();
+                return true;
+            }
+            Thread.yield();
+        }
+    }
+
+    private boolean hasWork() {
+        for (IntWorkStealingDeque deque : deques) {
+            if (!deque.isEmpty()) {
+                return true;
+            }
+        }
+        return satb != null && !satb.isEmpty();
+    }
+}
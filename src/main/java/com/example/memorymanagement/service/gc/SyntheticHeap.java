@@ -0,0 +1,96 @@
+package com.example.memorymanagement.service.gc;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// A large object graph for collector benchmarks: every object has a fixed number of reference fields
+// stored in one flat int array (-1 is null). The first liveFraction of the objects reference each
+// other, mostly nearby; the rest point into the heap but are referenced by nobody, so they are garbage.
+// Spare capacity lets a mutator allocate while a concurrent collection runs.
+public class SyntheticHeap {
+    public static final int NULL = -1;
+
+    private final int fieldsPerObject;
+    private final int[] fields;
+    private final int[] roots;
+    private final AtomicInteger allocated;
+
+    private SyntheticHeap(int capacity, int fieldsPerObject, int[] roots, int allocated) {
+        this.fieldsPerObject = fieldsPerObject;
+        this.fields = new int[capacity * fieldsPerObject];
+        this.roots = roots;
+        this.allocated = new AtomicInteger(allocated);
+    }
+
+    public static SyntheticHeap generate(int objects, int fieldsPerObject, int spare, long seed) {
+        if (objects <= 0 || fieldsPerObject <= 0 || spare < 0) {
+            throw new IllegalArgumentException("Object and field counts must be positive");
+        }
+        if ((long) (objects + spare) * fieldsPerObject > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Heap of " + objects + " objects is too large");
+        }
+        Random random = new Random(seed);
+        int liveObjects = Math.max(1, (int) (objects * 0.8));
+        int[] roots = new int[Math.max(1, objects / 1000)];
+        for (int i = 0; i < roots.length; i++) {
+            roots[i] = random.nextInt(liveObjects);
+        }
+
+        SyntheticHeap heap = new SyntheticHeap(objects + spare, fieldsPerObject, roots, objects);
+        int[] fields = heap.fields;
+        for (int object = 0; object < objects; object++) {
+            int bound = object < liveObjects ? liveObjects : objects;
+            for (int f = 0; f < fieldsPerObject; f++) {
+                int target = NULL;
+                if (random.nextInt(4) != 0) {
+                    target = random.nextInt(5) != 0
+                            ? Math.floorMod(object + random.nextInt(129) - 64, bound)
+                            : random.nextInt(bound);
+                }
+                fields[object * fieldsPerObject + f] = target;
+            }
+        }
+        for (int i = objects * fieldsPerObject; i < fields.length; i++) {
+            fields[i] = NULL;
+        }
+        return heap;
+    }
+
+    public int capacity() {
+        return fields.length / fieldsPerObject;
+    }
+
+    public int objectCount() {
+        return allocated.get();
+    }
+
+    public int fieldsPerObject() {
+        return fieldsPerObject;
+    }
+
+    public int[] roots() {
+        return roots;
+    }
+
+    public int field(int object, int field) {
+        return fields[object * fieldsPerObject + field];
+    }
+
+    // A plain store; concurrent marking relies on the write barrier, not on the store itself being ordered.
+    public int setField(int object, int field, int target) {
+        int index = object * fieldsPerObject + field;
+        int previous = fields[index];
+        fields[index] = target;
+        return previous;
+    }
+
+    // Returns a new object with all fields null, or NULL when the spare capacity is used up.
+    public int allocate() {
+        int object = allocated.getAndIncrement();
+        if (object >= capacity()) {
+            allocated.decrementAndGet();
+            return NULL;
+        }
+        return object;
+    }
+}
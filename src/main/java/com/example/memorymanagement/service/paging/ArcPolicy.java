@@ -0,0 +1,90 @@
+package com.example.memorymanagement.service.paging;
+
+// Adaptive Replacement Cache (Megiddo and Modha). T1/T2 hold resident pages seen once/more than once;
+// B1/B2 remember recently evicted pages and steer the target size p of T1.
+public class ArcPolicy implements PageReplacementPolicy {
+    private final int capacity;
+    private final PageList t1;
+    private final PageList t2;
+    private final PageList b1;
+    private final PageList b2;
+    private final FrameSlots slots;
+    private int p;
+
+    public ArcPolicy(int frameCount) {
+        this.capacity = frameCount;
+        this.t1 = new PageList(frameCount);
+        this.t2 = new PageList(frameCount);
+        this.b1 = new PageList(frameCount);
+        this.b2 = new PageList(frameCount);
+        this.slots = new FrameSlots(frameCount);
+    }
+
+    @Override
+    public boolean access(int page) {
+        if (t1.contains(page)) {
+            t1.remove(page);
+            t2.addFirst(page);
+            return true;
+        }
+        if (t2.contains(page)) {
+            t2.moveToFront(page);
+            return true;
+        }
+
+        if (b1.contains(page)) {
+            p = Math.min(capacity, p + Math.max(b2.size() / b1.size(), 1));
+            replace(false);
+            b1.remove(page);
+            t2.addFirst(page);
+        } else if (b2.contains(page)) {
+            p = Math.max(0, p - Math.max(b1.size() / b2.size(), 1));
+            replace(true);
+            b2.remove(page);
+            t2.addFirst(page);
+        } else {
+            int l1 = t1.size() + b1.size();
+            if (l1 == capacity) {
+                if (t1.size() < capacity) {
+                    b1.removeLast();
+                    replace(false);
+                } else {
+                    slots.evict(t1.removeLast());
+                }
+            } else {
+                int total = l1 + t2.size() + b2.size();
+                if (total >= capacity) {
+                    if (total == 2 * capacity) {
+                        b2.removeLast();
+                    }
+                    replace(false);
+                }
+            }
+            t1.addFirst(page);
+        }
+        slots.load(page);
+        return false;
+    }
+
+    @Override
+    public int frameCount() {
+        return capacity;
+    }
+
+    @Override
+    public int pageAt(int frame) {
+        return slots.pageAt(frame);
+    }
+
+    private void replace(boolean inB2) {
+        if (t1.size() > 0 && (t1.size() > p || (inB2 && t1.size() == p))) {
+            int victim = t1.removeLast();
+            slots.evict(victim);
+            b1.addFirst(victim);
+        } else {
+            int victim = t2.removeLast();
+            slots.evict(victim);
+            b2.addFirst(victim);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.memorymanagement.service.paging;
+
+import com.example.memorymanagement.model.PageFrame;
+import com.example.memorymanagement.util.IntIntHashMap;
+
+// CLOCK: a hand sweeps the frames, clearing reference bits until it finds an unreferenced victim.
+public class ClockPolicy implements PageReplacementPolicy {
+    private final PageFrame[] frames;
+    private final IntIntHashMap frameOf;
+    private int hand;
+    private long clock;
+
+    public ClockPolicy(int frameCount) {
+        this.frames = new PageFrame[frameCount];
+        for (int i = 0; i < frameCount; i++) {
+            frames[i] = new PageFrame(i, -1);
+        }
+        this.frameOf = new IntIntHashMap(frameCount, -1);
+    }
+
+    @Override
+    public boolean access(int page) {
+        clock++;
+        int frame = frameOf.get(page);
+        if (frame != -1) {
+            frames[frame].setReferenced(true);
+            frames[frame].setLastAccessTime(clock);
+            return true;
+        }
+
+        while (frames[hand].isOccupied() && frames[hand].isReferenced()) {
+            frames[hand].setReferenced(false);
+            hand = (hand + 1) % frames.length;
+        }
+        PageFrame victim = frames[hand];
+        if (victim.isOccupied()) {
+            frameOf.remove(victim.getPageNumber());
+        }
+        victim.setPageNumber(page);
+        victim.setReferenced(false);
+        victim.setLastAccessTime(clock);
+        frameOf.put(page, hand);
+        hand = (hand + 1) % frames.length;
+        return false;
+    }
+
+    @Override
+    public int frameCount() {
+        return frames.length;
+    }
+
+    @Override
+    public int pageAt(int frame) {
+        return frames[frame].getPageNumber();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.memorymanagement.service.paging;
+
+// Binary indexed tree over positions 1..capacity with O(log n) point updates and prefix sums.
+class FenwickTree {
+    private final int[] tree;
+
+    FenwickTree(int capacity) {
+        this.tree = new int[capacity + 1];
+    }
+
+    int capacity() {
+        return tree.length - 1;
+    }
+
+    void add(int position, int delta) {
+        for (int i = position; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // Sum of positions 1..position.
+    int prefixSum(int position) {
+        int sum = 0;
+        for (int i = position; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
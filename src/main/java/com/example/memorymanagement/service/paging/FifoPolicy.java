@@ -0,0 +1,41 @@
+package com.example.memorymanagement.service.paging;
+
+import com.example.memorymanagement.util.IntIntHashMap;
+
+public class FifoPolicy implements PageReplacementPolicy {
+    private final int[] frames;
+    private final IntIntHashMap resident;
+    private int used;
+    private int next;
+
+    public FifoPolicy(int frameCount) {
+        this.frames = new int[frameCount];
+        this.resident = new IntIntHashMap(frameCount, -1);
+    }
+
+    @Override
+    public boolean access(int page) {
+        if (resident.containsKey(page)) {
+            return true;
+        }
+        if (used < frames.length) {
+            used++;
+        } else {
+            resident.remove(frames[next]);
+        }
+        frames[next] = page;
+        resident.put(page, next);
+        next = (next + 1) % frames.length;
+        return false;
+    }
+
+    @Override
+    public int frameCount() {
+        return frames.length;
+    }
+
+    @Override
+    public int pageAt(int frame) {
+        return frame < used ? frames[frame] : -1;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.memorymanagement.service.paging;
+
+import com.example.memorymanagement.util.IntIntHashMap;
+
+import java.util.Arrays;
+
+// Assigns resident pages to numbered frames for policies that do not track frames themselves.
+class FrameSlots {
+    private final int[] framePages;
+    private final IntIntHashMap frameOf;
+    private final int[] freeFrames;
+    private int freeCount;
+
+    FrameSlots(int frameCount) {
+        this.framePages = new int[frameCount];
+        Arrays.fill(framePages, -1);
+        this.frameOf = new IntIntHashMap(frameCount, -1);
+        this.freeFrames = new int[frameCount];
+        for (int i = 0; i < frameCount; i++) {
+            freeFrames[i] = frameCount - 1 - i;
+        }
+        this.freeCount = frameCount;
+    }
+
+    int frameCount() {
+        return framePages.length;
+    }
+
+    void load(int page) {
+        int frame = freeFrames[--freeCount];
+        framePages[frame] = page;
+        frameOf.put(page, frame);
+    }
+
+    void evict(int page) {
+        int frame = frameOf.remove(page);
+        framePages[frame] = -1;
+        freeFrames[freeCount++] = frame;
+    }
+
+    int pageAt(int frame) {
+        return framePages[frame];
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.memorymanagement.service.paging;
+
+import com.example.memorymanagement.util.IntIntHashMap;
+
+// O(1) LFU: frames are grouped into per-frequency lists; ties within a frequency evict the least recent.
+public class LfuPolicy implements PageReplacementPolicy {
+    private static final int NIL = -1;
+
+    private final int[] pages;
+    private final int[] counts;
+    private final int[] prev;
+    private final int[] next;
+    private final IntIntHashMap frameOf;
+    private final IntIntHashMap bucketHead;
+    private final IntIntHashMap bucketTail;
+    private int used;
+    private int minCount;
+
+    public LfuPolicy(int frameCount) {
+        this.pages = new int[frameCount];
+        this.counts = new int[frameCount];
+        this.prev = new int[frameCount];
+        this.next = new int[frameCount];
+        this.frameOf = new IntIntHashMap(frameCount, NIL);
+        this.bucketHead = new IntIntHashMap(16, NIL);
+        this.bucketTail = new IntIntHashMap(16, NIL);
+    }
+
+    @Override
+    public boolean access(int page) {
+        int frame = frameOf.get(page);
+        if (frame != NIL) {
+            int count = counts[frame];
+            unlink(frame);
+            if (count == minCount && !bucketHead.containsKey(count)) {
+                minCount = count + 1;
+            }
+            counts[frame] = count + 1;
+            pushFront(frame);
+            return true;
+        }
+
+        if (used < pages.length) {
+            frame = used++;
+        } else {
+            frame = bucketTail.get(minCount);
+            unlink(frame);
+            frameOf.remove(pages[frame]);
+        }
+        pages[frame] = page;
+        counts[frame] = 1;
+        frameOf.put(page, frame);
+        pushFront(frame);
+        minCount = 1;
+        return false;
+    }
+
+    @Override
+    public int frameCount() {
+        return pages.length;
+    }
+
+    @Override
+    public int pageAt(int frame) {
+        return frame < used ? pages[frame] : -1;
+    }
+
+    private void pushFront(int frame) {
+        int count = counts[frame];
+        int head = bucketHead.get(count);
+        prev[frame] = NIL;
+        next[frame] = head;
+        if (head != NIL) {
+            prev[head] = frame;
+        } else {
+            bucketTail.put(count, frame);
+        }
+        bucketHead.put(count, frame);
+    }
+
+    private void unlink(int frame) {
+        int count = counts[frame];
+        if (prev[frame] != NIL) {
+            next[prev[frame]] = next[frame];
+        } else if (next[frame] != NIL) {
+            bucketHead.put(count, next[frame]);
+        } else {
+            bucketHead.remove(count);
+        }
+        if (next[frame] != NIL) {
+            prev[next[frame]] = prev[frame];
+        } else if (prev[frame] != NIL) {
+            bucketTail.put(count, prev[frame]);
+        } else {
+            bucketTail.remove(count);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.memorymanagement.service.paging;
+
+import com.example.memorymanagement.util.IntIntHashMap;
+
+// Frames double as list nodes: a doubly-linked recency list threaded through int arrays, head = most recent.
+public class LruPolicy implements PageReplacementPolicy {
+    private static final int NIL = -1;
+
+    private final int[] pages;
+    private final int[] prev;
+    private final int[] next;
+    private final IntIntHashMap frameOf;
+    private int head = NIL;
+    private int tail = NIL;
+    private int used;
+
+    public LruPolicy(int frameCount) {
+        this.pages = new int[frameCount];
+        this.prev = new int[frameCount];
+        this.next = new int[frameCount];
+        this.frameOf = new IntIntHashMap(frameCount, NIL);
+    }
+
+    @Override
+    public boolean access(int page) {
+        int frame = frameOf.get(page);
+        if (frame != NIL) {
+            if (frame != head) {
+                unlink(frame);
+                pushFront(frame);
+            }
+            return true;
+        }
+        if (used < pages.length) {
+            frame = used++;
+        } else {
+            frame = tail;
+            unlink(frame);
+            frameOf.remove(pages[frame]);
+        }
+        pages[frame] = page;
+        frameOf.put(page, frame);
+        pushFront(frame);
+        return false;
+    }
+
+    @Override
+    public int frameCount() {
+        return pages.length;
+    }
+
+    @Override
+    public int pageAt(int frame) {
+        return frame < used ? pages[frame] : -1;
+    }
+
+    private void unlink(int frame) {
+        if (prev[frame] != NIL) {
+            next[prev[frame]] = next[frame];
+        } else {
+            head = next[frame];
+        }
+        if (next[frame] != NIL) {
+            prev[next[frame]] = prev[frame];
+        } else {
+            tail = prev[frame];
+        }
+    }
+
+    private void pushFront(int frame) {
+        prev[frame] = NIL;
+        next[frame] = head;
+        if (head != NIL) {
+            prev[head] = frame;
+        }
+        head = frame;
+        if (tail == NIL) {
+            tail = frame;
+        }
+    }
+}
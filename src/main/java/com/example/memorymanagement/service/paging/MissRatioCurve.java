@@ -0,0 +1,104 @@
+package com.example.memorymanagement.service.paging;
+
+import com.example.memorymanagement.util.IntIntHashMap;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Mattson's LRU stack distances in one pass. A page's stack distance is the number of distinct pages
+// referenced since its previous use; a Fenwick tree over reference times marks each page's latest use,
+// so the distance is a range count. Optional SHARDS sampling keeps only pages whose hash falls under
+// the sampling threshold and scales their distances by 1 / rate.
+public class MissRatioCurve implements IntConsumer {
+    private static final long HASH_MODULUS = 1L << 24;
+
+    private final double sampleRate;
+    private final long threshold;
+    private final IntIntHashMap lastUse = new IntIntHashMap(1024, 0);
+    private FenwickTree latest = new FenwickTree(1024);
+    private long[] histogram = new long[64];
+    private long references;
+    private int sampledReferences;
+    private long coldMisses;
+
+    public MissRatioCurve(double sampleRate) {
+        if (sampleRate <= 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Sample rate must be in (0, 1]: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+        this.threshold = (long) Math.ceil(sampleRate * HASH_MODULUS);
+    }
+
+    @Override
+    public void accept(int page) {
+        references++;
+        if (sampleRate < 1 && (hash(page) & (HASH_MODULUS - 1)) >= threshold) {
+            return;
+        }
+        if (sampledReferences == Integer.MAX_VALUE - 1) {
+            throw new IllegalArgumentException("Too many sampled references; lower the sample rate");
+        }
+        int time = ++sampledReferences;
+        if (time > latest.capacity()) {
+            grow();
+        }
+
+        int previous = lastUse.put(page, time);
+        if (previous == 0) {
+            coldMisses++;
+        } else {
+            int distance = latest.prefixSum(time - 1) - latest.prefixSum(previous);
+            latest.add(previous, -1);
+            record((int) Math.min(Integer.MAX_VALUE - 8, Math.round((distance + 1) / sampleRate)));
+        }
+        latest.add(time, 1);
+    }
+
+    public long getReferences() {
+        return references;
+    }
+
+    public int getSampledReferences() {
+        return sampledReferences;
+    }
+
+    public long getDistinctPages() {
+        return Math.round(lastUse.size() / sampleRate);
+    }
+
+    public long getColdMisses() {
+        return coldMisses;
+    }
+
+    // hitRatios[c - 1] is the LRU hit ratio in percent with c frames.
+    public double[] hitRatios(int maxFrames) {
+        double[] ratios = new double[maxFrames];
+        long hits = 0;
+        for (int frames = 1; frames <= maxFrames; frames++) {
+            if (frames < histogram.length) {
+                hits += histogram[frames];
+            }
+            ratios[frames - 1] = sampledReferences > 0 ? (double) hits / sampledReferences * 100 : 0;
+        }
+        return ratios;
+    }
+
+    private void record(int distance) {
+        if (distance >= histogram.length) {
+            histogram = Arrays.copyOf(histogram, Math.max(distance + 1, histogram.length * 2));
+        }
+        histogram[distance]++;
+    }
+
+    // Doubles the time axis and re-marks every page's latest use.
+    private void grow() {
+        FenwickTree grown = new FenwickTree((int) Math.min(Integer.MAX_VALUE - 8, (long) latest.capacity() * 2));
+        lastUse.forEach((page, time) -> grown.add(time, 1));
+        latest = grown;
+    }
+
+    private static long hash(int page) {
+        long h = page * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.memorymanagement.service.paging;
+
+import com.example.memorymanagement.util.IntIntHashMap;
+
+// Belady's optimal policy. Resident frames sit in an indexed max-heap keyed by their page's next use.
+public class OptimalPolicy implements PageReplacementPolicy {
+    private final int[] nextUse;
+    private final int[] framePages;
+    private final int[] frameNextUse;
+    private final int[] heap;
+    private final int[] heapIndex;
+    private final IntIntHashMap resident;
+    private int used;
+    private int position;
+
+    public OptimalPolicy(int frameCount, ReferenceTrace trace) {
+        this.nextUse = trace.nextUseIndex();
+        this.framePages = new int[frameCount];
+        this.frameNextUse = new int[frameCount];
+        this.heap = new int[frameCount];
+        this.heapIndex = new int[frameCount];
+        this.resident = new IntIntHashMap(frameCount, -1);
+    }
+
+    @Override
+    public boolean access(int page) {
+        int next = nextUse[position++];
+        int frame = resident.get(page);
+        if (frame != -1) {
+            // The page was due now, so its key can only grow.
+            frameNextUse[frame] = next;
+            siftUp(heapIndex[frame]);
+            return true;
+        }
+        if (used < framePages.length) {
+            frame = used;
+            heap[used] = frame;
+            heapIndex[frame] = used;
+            used++;
+            framePages[frame] = page;
+            frameNextUse[frame] = next;
+            siftUp(heapIndex[frame]);
+        } else {
+            frame = heap[0];
+            resident.remove(framePages[frame]);
+            framePages[frame] = page;
+            frameNextUse[frame] = next;
+            siftDown(0);
+        }
+        resident.put(page, frame);
+        return false;
+    }
+
+    @Override
+    public int frameCount() {
+        return framePages.length;
+    }
+
+    @Override
+    public int pageAt(int frame) {
+        return frame < used ? framePages[frame] : -1;
+    }
+
+    private void siftUp(int index) {
+        int frame = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (frameNextUse[heap[parent]] >= frameNextUse[frame]) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(frame, index);
+    }
+
+    private void siftDown(int index) {
+        int frame = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= used) {
+                break;
+            }
+            if (child + 1 < used && frameNextUse[heap[child + 1]] > frameNextUse[heap[child]]) {
+                child++;
+            }
+            if (frameNextUse[heap[child]] <= frameNextUse[frame]) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(frame, index);
+    }
+
+    private void place(int frame, int index) {
+        heap[index] = frame;
+        heapIndex[frame] = index;
+    }
+}
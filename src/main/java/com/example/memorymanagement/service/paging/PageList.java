@@ -0,0 +1,117 @@
+package com.example.memorymanagement.service.paging;
+
+import com.example.memorymanagement.util.IntIntHashMap;
+
+import java.util.Arrays;
+
+// Recency-ordered set of page numbers with O(1) membership, removal and move-to-front.
+class PageList {
+    private static final int NIL = -1;
+
+    private final IntIntHashMap nodeOf;
+    private int[] pages;
+    private int[] prev;
+    private int[] next;
+    private int head = NIL;
+    private int tail = NIL;
+    private int freeNodes = NIL;
+    private int nodesUsed;
+    private int size;
+
+    PageList(int expectedSize) {
+        int capacity = Math.max(1, expectedSize);
+        this.nodeOf = new IntIntHashMap(capacity, NIL);
+        this.pages = new int[capacity];
+        this.prev = new int[capacity];
+        this.next = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int page) {
+        return nodeOf.containsKey(page);
+    }
+
+    void addFirst(int page) {
+        int node = takeNode();
+        pages[node] = page;
+        nodeOf.put(page, node);
+        linkFirst(node);
+        size++;
+    }
+
+    void moveToFront(int page) {
+        int node = nodeOf.get(page);
+        if (node != head) {
+            unlink(node);
+            linkFirst(node);
+        }
+    }
+
+    boolean remove(int page) {
+        int node = nodeOf.remove(page);
+        if (node == NIL) {
+            return false;
+        }
+        release(node);
+        return true;
+    }
+
+    // Removes and returns the least recently added or moved page.
+    int removeLast() {
+        int node = tail;
+        int page = pages[node];
+        nodeOf.remove(page);
+        release(node);
+        return page;
+    }
+
+    private void release(int node) {
+        unlink(node);
+        next[node] = freeNodes;
+        freeNodes = node;
+        size--;
+    }
+
+    private int takeNode() {
+        if (freeNodes != NIL) {
+            int node = freeNodes;
+            freeNodes = next[node];
+            return node;
+        }
+        if (nodesUsed == pages.length) {
+            int capacity = pages.length * 2;
+            pages = Arrays.copyOf(pages, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return nodesUsed++;
+    }
+
+    private void linkFirst(int node) {
+        prev[node] = NIL;
+        next[node] = head;
+        if (head != NIL) {
+            prev[head] = node;
+        }
+        head = node;
+        if (tail == NIL) {
+            tail = node;
+        }
+    }
+
+    private void unlink(int node) {
+        if (prev[node] != NIL) {
+            next[prev[node]] = next[node];
+        } else {
+            head = next[node];
+        }
+        if (next[node] != NIL) {
+            prev[next[node]] = prev[node];
+        } else {
+            tail = prev[node];
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.memorymanagement.service.paging;
+
+public final class PageReplacementPolicies {
+
+    private PageReplacementPolicies() {
+    }
+
+    public static boolean isSupported(String algorithm) {
+        switch (algorithm.toLowerCase()) {
+            case "fifo":
+            case "lru":
+            case "optimal":
+            case "clock":
+            case "second-chance":
+            case "lfu":
+            case "arc":
+            case "2q":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Policies that look ahead need the whole trace in memory; the rest can consume it as a stream.
+    public static boolean requiresFullTrace(String algorithm) {
+        return "optimal".equalsIgnoreCase(algorithm);
+    }
+
+    public static PageReplacementPolicy create(String algorithm, int frames, ReferenceTrace trace) {
+        if (frames <= 0) {
+            throw new IllegalArgumentException("Frame count must be positive: " + frames);
+        }
+        switch (algorithm.toLowerCase()) {
+            case "fifo":
+                return new FifoPolicy(frames);
+            case "lru":
+                return new LruPolicy(frames);
+            case "clock":
+                return new ClockPolicy(frames);
+            case "second-chance":
+                return new SecondChancePolicy(frames);
+            case "lfu":
+                return new LfuPolicy(frames);
+            case "arc":
+                return new ArcPolicy(frames);
+            case "2q":
+                return new TwoQueuePolicy(frames);
+            case "optimal":
+                if (trace == null) {
+                    throw new IllegalArgumentException("The optimal policy needs the full reference trace");
+                }
+                return new OptimalPolicy(frames, trace);
+            default:
+                throw new IllegalArgumentException("Unknown page replacement algorithm: " + algorithm);
+        }
+    }
+}
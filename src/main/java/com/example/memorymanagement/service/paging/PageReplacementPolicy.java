@@ -0,0 +1,12 @@
+package com.example.memorymanagement.service.paging;
+
+public interface PageReplacementPolicy {
+
+    // Records a reference to page; returns true on a hit, false on a page fault.
+    boolean access(int page);
+
+    int frameCount();
+
+    // Page currently held by the given frame, or -1 if the frame is empty.
+    int pageAt(int frame);
+}
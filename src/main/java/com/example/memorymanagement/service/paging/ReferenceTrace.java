@@ -0,0 +1,101 @@
+package com.example.memorymanagement.service.paging;
+
+import com.example.memorymanagement.util.IntIntHashMap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+public class ReferenceTrace {
+    private int[] pages;
+    private int length;
+
+    public ReferenceTrace(int[] pages) {
+        this.pages = pages;
+        this.length = pages.length;
+    }
+
+    private ReferenceTrace(int capacity) {
+        this.pages = new int[capacity];
+    }
+
+    public static ReferenceTrace read(InputStream in) throws IOException {
+        ReferenceTrace trace = new ReferenceTrace(1024);
+        forEach(in, trace::add);
+        return trace;
+    }
+
+    // Streams page numbers out of text separated by whitespace, commas or semicolons. Any other character,
+    // such as a sign or a decimal point, rejects the trace rather than being read as a separator.
+    public static long forEach(InputStream in, IntConsumer consumer) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long count = 0;
+        long value = 0;
+        boolean inNumber = false;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                int digit = buffer[i] - '0';
+                if (digit >= 0 && digit <= 9) {
+                    value = value * 10 + digit;
+                    if (value > Integer.MAX_VALUE) {
+                        throw new IllegalArgumentException("Page number too large at reference " + count);
+                    }
+                    inNumber = true;
+                } else if (!isSeparator(buffer[i])) {
+                    throw new IllegalArgumentException("Malformed page number at reference " + count
+                            + ": unexpected character '" + (char) (buffer[i] & 0xff) + "'");
+                } else if (inNumber) {
+                    consumer.accept((int) value);
+                    count++;
+                    value = 0;
+                    inNumber = false;
+                }
+            }
+        }
+        if (inNumber) {
+            consumer.accept((int) value);
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean isSeparator(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == ',' || b == ';';
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public int get(int index) {
+        return pages[index];
+    }
+
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < length; i++) {
+            consumer.accept(pages[i]);
+        }
+    }
+
+    // nextUse[i] is the position of the next reference to pages[i], or length if it is never used again.
+    public int[] nextUseIndex() {
+        int[] nextUse = new int[length];
+        IntIntHashMap lastSeen = new IntIntHashMap(1024, length);
+        for (int i = length - 1; i >= 0; i--) {
+            nextUse[i] = lastSeen.put(pages[i], i);
+        }
+        return nextUse;
+    }
+
+    private void add(int page) {
+        if (length == pages.length) {
+            if (length == Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Trace is too long");
+            }
+            pages = Arrays.copyOf(pages, (int) Math.min(Integer.MAX_VALUE - 8, (long) length * 2));
+        }
+        pages[length++] = page;
+    }
+}
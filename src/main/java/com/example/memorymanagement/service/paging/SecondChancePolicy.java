@@ -0,0 +1,64 @@
+package com.example.memorymanagement.service.paging;
+
+import com.example.memorymanagement.model.PageFrame;
+import com.example.memorymanagement.util.IntIntHashMap;
+
+import java.util.ArrayDeque;
+
+// FIFO with a reference bit: a referenced head is re-queued with a fresh load time instead of evicted.
+public class SecondChancePolicy implements PageReplacementPolicy {
+    private final PageFrame[] frames;
+    private final ArrayDeque<PageFrame> queue;
+    private final IntIntHashMap frameOf;
+    private int used;
+    private long clock;
+
+    public SecondChancePolicy(int frameCount) {
+        this.frames = new PageFrame[frameCount];
+        for (int i = 0; i < frameCount; i++) {
+            frames[i] = new PageFrame(i, -1);
+        }
+        this.queue = new ArrayDeque<>(frameCount);
+        this.frameOf = new IntIntHashMap(frameCount, -1);
+    }
+
+    @Override
+    public boolean access(int page) {
+        clock++;
+        int frame = frameOf.get(page);
+        if (frame != -1) {
+            frames[frame].setReferenced(true);
+            return true;
+        }
+
+        PageFrame target;
+        if (used < frames.length) {
+            target = frames[used++];
+        } else {
+            target = queue.pollFirst();
+            while (target.isReferenced()) {
+                target.setReferenced(false);
+                target.setLastAccessTime(clock);
+                queue.addLast(target);
+                target = queue.pollFirst();
+            }
+            frameOf.remove(target.getPageNumber());
+        }
+        target.setPageNumber(page);
+        target.setReferenced(false);
+        target.setLastAccessTime(clock);
+        frameOf.put(page, target.getFrameId());
+        queue.addLast(target);
+        return false;
+    }
+
+    @Override
+    public int frameCount() {
+        return frames.length;
+    }
+
+    @Override
+    public int pageAt(int frame) {
+        return frames[frame].getPageNumber();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.memorymanagement.service.paging;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+public class TraceSimulation implements IntConsumer {
+    private final String algorithm;
+    private final PageReplacementPolicy policy;
+    private long references;
+    private long pageFaults;
+
+    public TraceSimulation(String algorithm, PageReplacementPolicy policy) {
+        this.algorithm = algorithm;
+        this.policy = policy;
+    }
+
+    @Override
+    public void accept(int page) {
+        references++;
+        if (!policy.access(page)) {
+            pageFaults++;
+        }
+    }
+
+    public long getReferences() {
+        return references;
+    }
+
+    public long getPageFaults() {
+        return pageFaults;
+    }
+
+    public long getPageHits() {
+        return references - pageFaults;
+    }
+
+    public double getHitRatio() {
+        return references > 0 ? (double) getPageHits() / references * 100 : 0;
+    }
+
+    public Map<String, Object> toResult() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("algorithm", algorithm);
+        result.put("frames", policy.frameCount());
+        result.put("references", references);
+        result.put("pageFaults", pageFaults);
+        result.put("pageHits", getPageHits());
+        result.put("hitRatio", Math.round(getHitRatio()));
+        return result;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.memorymanagement.service.paging;
+
+// Full 2Q (Johnson and Shasha): new pages enter the A1in FIFO, pages evicted from it are remembered in
+// the A1out ghost queue, and only pages re-referenced from A1out are promoted into the Am LRU.
+public class TwoQueuePolicy implements PageReplacementPolicy {
+    private final int capacity;
+    private final int inLimit;
+    private final int outLimit;
+    private final PageList a1in;
+    private final PageList a1out;
+    private final PageList am;
+    private final FrameSlots slots;
+
+    public TwoQueuePolicy(int frameCount) {
+        this.capacity = frameCount;
+        this.inLimit = Math.max(1, frameCount / 4);
+        this.outLimit = Math.max(1, frameCount / 2);
+        this.a1in = new PageList(frameCount);
+        this.a1out = new PageList(outLimit);
+        this.am = new PageList(frameCount);
+        this.slots = new FrameSlots(frameCount);
+    }
+
+    @Override
+    public boolean access(int page) {
+        if (am.contains(page)) {
+            am.moveToFront(page);
+            return true;
+        }
+        if (a1in.contains(page)) {
+            return true;
+        }
+
+        reclaimFrame();
+        if (a1out.remove(page)) {
+            am.addFirst(page);
+        } else {
+            a1in.addFirst(page);
+        }
+        slots.load(page);
+        return false;
+    }
+
+    @Override
+    public int frameCount() {
+        return capacity;
+    }
+
+    @Override
+    public int pageAt(int frame) {
+        return slots.pageAt(frame);
+    }
+
+    private void reclaimFrame() {
+        if (a1in.size() + am.size() < capacity) {
+            return;
+        }
+        if (a1in.size() > inLimit || am.size() == 0) {
+            int victim = a1in.removeLast();
+            slots.evict(victim);
+            a1out.addFirst(victim);
+            if (a1out.size() > outLimit) {
+                a1out.removeLast();
+            }
+        } else {
+            slots.evict(am.removeLast());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.memorymanagement.service.reclaim;
+
+import com.example.memorymanagement.model.Process;
+
+import java.util.Comparator;
+
+// Order in which resident processes are chosen for swap-out under memory pressure.
+public enum VictimPolicy {
+    LRU(Comparator.comparingLong(Process::getLastAccessTime)),
+    LARGEST(Comparator.comparingInt(Process::getSize).reversed()),
+    PRIORITY(Comparator.comparingInt(Process::getPriority));
+
+    private final Comparator<Process> order;
+
+    VictimPolicy(Comparator<Process> order) {
+        this.order = order.thenComparingInt(Process::getId);
+    }
+
+    public Comparator<Process> order() {
+        return order;
+    }
+
+    public static VictimPolicy from(String name) {
+        switch (name.toLowerCase()) {
+            case "lru":
+                return LRU;
+            case "largest":
+                return LARGEST;
+            case "priority":
+                return PRIORITY;
+            default:
+                throw new IllegalArgumentException("Unknown victim policy: " + name);
+        }
+    }
+}
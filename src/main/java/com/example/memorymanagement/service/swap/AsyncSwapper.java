@@ -0,0 +1,168 @@
+package com.example.memorymanagement.service.swap;
+
+import com.example.memorymanagement.util.LatencyHistogram;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Queues swap requests for a single I/O worker. The worker drains whatever has queued up (up to
+// maxBatch requests) and hands consecutive requests of the same direction to the SwapManager as
+// one batch, so pages of different processes that sit next to each other in swap share a transfer.
+public class AsyncSwapper implements Closeable {
+    private enum Direction { OUT, IN }
+
+    private static class Request {
+        final Direction direction;
+        final String name;
+        final long enqueuedAt = System.nanoTime();
+        final CompletableFuture<SwapOutcome> future = new CompletableFuture<>();
+
+        Request(Direction direction, String name) {
+            this.direction = direction;
+            this.name = name;
+        }
+    }
+
+    private final SwapManager manager;
+    private final int maxBatch;
+    private final BlockingQueue<Request> queue;
+    private final Thread worker;
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram completion = new LatencyHistogram();
+    private final AtomicLongArray batchSizes;
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private volatile boolean running = true;
+
+    public AsyncSwapper(SwapManager manager, int queueCapacity, int maxBatch) {
+        if (queueCapacity <= 0 || maxBatch <= 0) {
+            throw new IllegalArgumentException("Queue capacity and batch size must be positive");
+        }
+        this.manager = manager;
+        this.maxBatch = maxBatch;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSizes = new AtomicLongArray(maxBatch + 1);
+        this.worker = new Thread(this::run, "swap-io");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public CompletableFuture<SwapOutcome> swapOut(String name) {
+        return submit(new Request(Direction.OUT, name));
+    }
+
+    public CompletableFuture<SwapOutcome> swapIn(String name) {
+        return submit(new Request(Direction.IN, name));
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    public Map<String, Object> getStatistics() {
+        List<Map<String, Object>> sizes = new ArrayList<>();
+        for (int size = 1; size <= maxBatch; size++) {
+            long count = batchSizes.get(size);
+            if (count > 0) {
+                Map<String, Object> bucket = new HashMap<>();
+                bucket.put("batchSize", size);
+                bucket.put("count", count);
+                sizes.add(bucket);
+            }
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("maxQueueDepth", maxQueueDepth.get());
+        stats.put("queueCapacity", queue.size() + queue.remainingCapacity());
+        stats.put("maxBatch", maxBatch);
+        stats.put("batches", batches.get());
+        stats.put("rejected", rejected.get());
+        stats.put("batchSizes", sizes);
+        stats.put("queueWait", queueWait.toMap());
+        stats.put("completion", completion.toMap());
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+        List<Request> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        for (Request request : pending) {
+            request.future.complete(SwapOutcome.failed(request.name, "Swap service is shutting down"));
+        }
+    }
+
+    // A full queue fails the request immediately instead of blocking the caller.
+    private CompletableFuture<SwapOutcome> submit(Request request) {
+        if (!running || !queue.offer(request)) {
+            rejected.incrementAndGet();
+            request.future.complete(SwapOutcome.failed(request.name, "Swap queue is full"));
+            return request.future;
+        }
+        maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        return request.future;
+    }
+
+    private void run() {
+        List<Request> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+            batches.incrementAndGet();
+            batchSizes.incrementAndGet(batch.size());
+            process(batch);
+            batch.clear();
+        }
+    }
+
+    private void process(List<Request> batch) {
+        long dequeuedAt = System.nanoTime();
+        for (Request request : batch) {
+            queueWait.recordNanos(dequeuedAt - request.enqueuedAt);
+        }
+
+        for (int from = 0; from < batch.size(); ) {
+            Direction direction = batch.get(from).direction;
+            int to = from + 1;
+            while (to < batch.size() && batch.get(to).direction == direction) {
+                to++;
+            }
+            List<Request> group = batch.subList(from, to);
+            List<String> names = new ArrayList<>(group.size());
+            for (Request request : group) {
+                names.add(request.name);
+            }
+
+            try {
+                List<SwapOutcome> outcomes = direction == Direction.OUT ? manager.swapOut(names) : manager.swapIn(names);
+                long completedAt = System.nanoTime();
+                for (int i = 0; i < group.size(); i++) {
+                    completion.recordNanos(completedAt - group.get(i).enqueuedAt);
+                    group.get(i).future.complete(outcomes.get(i));
+                }
+            } catch (RuntimeException e) {
+                for (Request request : group) {
+                    request.future.completeExceptionally(e);
+                }
+            }
+            from = to;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.memorymanagement.service.swap;
+
+import com.example.memorymanagement.service.allocation.FreeBitmap;
+
+import java.nio.ByteBuffer;
+
+// Simulated physical memory: page frames carved out of one off-heap buffer. Not thread-safe.
+public class RamArena {
+    private final int pageSize;
+    private final ByteBuffer memory;
+    private final FreeBitmap frames;
+
+    public RamArena(int frameCount, int pageSize) {
+        if (frameCount <= 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Frame count and page size must be positive");
+        }
+        if ((long) frameCount * pageSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("RAM of " + frameCount + " x " + pageSize + " bytes is too large");
+        }
+        this.pageSize = pageSize;
+        this.memory = ByteBuffer.allocateDirect(frameCount * pageSize);
+        this.frames = new FreeBitmap(frameCount);
+    }
+
+    public int pageSize() {
+        return pageSize;
+    }
+
+    public int frameCount() {
+        return frames.capacity();
+    }
+
+    public int freeFrames() {
+        return frames.freeCount();
+    }
+
+    // Returns null if there are not enough free frames.
+    public int[] allocate(int pages) {
+        if (pages > frames.freeCount()) {
+            return null;
+        }
+        int[] allocated = new int[pages];
+        int frame = -1;
+        for (int i = 0; i < pages; i++) {
+            frame = frames.nextFree(frame + 1);
+            allocated[i] = frame;
+            frames.markUsed(frame, 1);
+        }
+        return allocated;
+    }
+
+    public void free(int frame) {
+        frames.markFree(frame, 1);
+    }
+
+    // A view of one frame, positioned at its first byte.
+    public ByteBuffer frame(int frame) {
+        if (frames.isFree(frame)) {
+            throw new IllegalStateException("Frame " + frame + " is not allocated");
+        }
+        ByteBuffer view = memory.duplicate();
+        view.limit(frame * pageSize + pageSize).position(frame * pageSize);
+        return view.slice();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.memorymanagement.service.swap;
+
+import com.example.memorymanagement.service.allocation.FreeBitmap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Swap space as a memory-mapped file divided into page-sized slots. Not thread-safe; the caller serialises access.
+public class SwapFile implements Closeable {
+    private final Path path;
+    private final int pageSize;
+    private final FileChannel channel;
+    private final MappedByteBuffer mapped;
+    private final FreeBitmap slots;
+
+    public SwapFile(Path path, int slotCount, int pageSize) throws IOException {
+        if (slotCount <= 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Slot count and page size must be positive");
+        }
+        if ((long) slotCount * pageSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Swap file of " + slotCount + " x " + pageSize + " bytes is too large to map");
+        }
+        this.path = path;
+        this.pageSize = pageSize;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) slotCount * pageSize);
+        this.slots = new FreeBitmap(slotCount);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int pageSize() {
+        return pageSize;
+    }
+
+    public int slotCount() {
+        return slots.capacity();
+    }
+
+    public int freeSlots() {
+        return slots.freeCount();
+    }
+
+    // Prefers one contiguous run so the pages stay sequential on disk; returns null if swap is full.
+    public int[] allocate(int pages) {
+        if (pages > slots.freeCount()) {
+            return null;
+        }
+        int[] allocated = new int[pages];
+        int run = slots.findFirstFit(pages);
+        if (run != -1) {
+            for (int i = 0; i < pages; i++) {
+                allocated[i] = run + i;
+            }
+            slots.markUsed(run, pages);
+            return allocated;
+        }
+        int slot = -1;
+        for (int i = 0; i < pages; i++) {
+            slot = slots.nextFree(slot + 1);
+            allocated[i] = slot;
+            slots.markUsed(slot, 1);
+        }
+        return allocated;
+    }
+
+    public void free(int slot) {
+        slots.markFree(slot, 1);
+    }
+
+    public void write(int slot, ByteBuffer page) {
+        slotView(slot).put(page);
+    }
+
+    public void read(int slot, ByteBuffer page) {
+        page.put(slotView(slot));
+    }
+
+    public boolean isAllocated(int slot) {
+        return !slots.isFree(slot);
+    }
+
+    // Writes consecutive slots starting at firstSlot; runs longer than one page are a single gathering write.
+    public void writeRun(int firstSlot, ByteBuffer[] pages) {
+        if (pages.length == 1) {
+            write(firstSlot, pages[0]);
+            return;
+        }
+        checkRun(firstSlot, pages.length);
+        try {
+            channel.position((long) firstSlot * pageSize);
+            long remaining = (long) pages.length * pageSize;
+            while (remaining > 0) {
+                remaining -= channel.write(pages);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Reads consecutive slots starting at firstSlot; runs longer than one page are a single scattering read.
+    public void readRun(int firstSlot, ByteBuffer[] pages) {
+        if (pages.length == 1) {
+            read(firstSlot, pages[0]);
+            return;
+        }
+        checkRun(firstSlot, pages.length);
+        try {
+            channel.position((long) firstSlot * pageSize);
+            long remaining = (long) pages.length * pageSize;
+            while (remaining > 0) {
+                long read = channel.read(pages);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of swap file at slot " + firstSlot);
+                }
+                remaining -= read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Flushes dirty pages of the mapping and the channel to the file.
+    public void force() {
+        mapped.force();
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void checkRun(int firstSlot, int length) {
+        if (firstSlot < 0 || firstSlot > slots.capacity() - length) {
+            throw new IndexOutOfBoundsException("Slots [" + firstSlot + ", " + firstSlot + "+" + length
+                    + ") are outside the swap file");
+        }
+        int free = slots.nextFree(firstSlot);
+        if (free != -1 && free < firstSlot + length) {
+            throw new IllegalStateException("Swap slot " + free + " is not allocated");
+        }
+    }
+
+    private ByteBuffer slotView(int slot) {
+        if (slots.isFree(slot)) {
+            throw new IllegalStateException("Swap slot " + slot + " is not allocated");
+        }
+        ByteBuffer view = mapped.duplicate();
+        view.limit(slot * pageSize + pageSize).position(slot * pageSize);
+        return view;
+    }
+}
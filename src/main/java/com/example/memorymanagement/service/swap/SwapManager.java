@@ -0,0 +1,404 @@
+package com.example.memorymanagement.service.swap;
+
+import com.example.memorymanagement.util.LatencyHistogram;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+// Moves whole processes page by page between the RAM arena and the swap file and keeps I/O statistics.
+// Operations take a batch of processes: their pages are sorted by swap slot and adjacent slots are
+// transferred with one vectored call. Swap-in also reads ahead the slots that follow each run into a
+// small cache, so a neighbour swapped in next is served from memory.
+public class SwapManager implements Closeable {
+    private final RamArena ram;
+    private final SwapFile swap;
+    private final boolean syncWrites;
+    private final int readAheadPages;
+    private final Map<String, SwappedProcess> processes = new LinkedHashMap<>();
+    private final Map<Integer, ByteBuffer> readAheadCache;
+    private final LatencyHistogram swapOutLatency = new LatencyHistogram();
+    private final LatencyHistogram swapInLatency = new LatencyHistogram();
+
+    private long swapOuts;
+    private long swapIns;
+    private long pagesOut;
+    private long pagesIn;
+    private long swapOutNanos;
+    private long swapInNanos;
+    private long writeCalls;
+    private long readCalls;
+    private long readAheadPagesRead;
+    private long readAheadHits;
+
+    public SwapManager(RamArena ram, SwapFile swap, boolean syncWrites) {
+        this(ram, swap, syncWrites, 0);
+    }
+
+    public SwapManager(RamArena ram, SwapFile swap, boolean syncWrites, int readAheadPages) {
+        if (ram.pageSize() != swap.pageSize()) {
+            throw new IllegalArgumentException("RAM and swap must use the same page size");
+        }
+        this.ram = ram;
+        this.swap = swap;
+        this.syncWrites = syncWrites;
+        this.readAheadPages = Math.max(0, readAheadPages);
+        final int cachePages = Math.max(1, this.readAheadPages * 8);
+        this.readAheadCache = new LinkedHashMap<Integer, ByteBuffer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ByteBuffer> eldest) {
+                return size() > cachePages;
+            }
+        };
+    }
+
+    // Creates a resident process whose pages are filled with a pattern derived from its name.
+    public synchronized void load(String name, int pages) {
+        if (pages <= 0) {
+            throw new IllegalArgumentException("A process needs at least one page");
+        }
+        if (processes.containsKey(name)) {
+            throw new IllegalArgumentException("Process " + name + " already exists");
+        }
+        int[] frames = ram.allocate(pages);
+        if (frames == null) {
+            throw new IllegalStateException("Not enough free RAM frames for " + pages + " pages");
+        }
+        for (int i = 0; i < frames.length; i++) {
+            fill(ram.frame(frames[i]), name.hashCode() * 31L + i);
+        }
+        processes.put(name, new SwappedProcess(name, frames));
+    }
+
+    // Forgets a process and gives back its RAM frames or swap slots; false if it was not loaded.
+    public synchronized boolean unload(String name) {
+        SwappedProcess process = processes.remove(name);
+        if (process == null) {
+            return false;
+        }
+        for (int page : process.getPages()) {
+            if (process.isResident()) {
+                ram.free(page);
+            } else {
+                invalidate(page);
+                swap.free(page);
+            }
+        }
+        return true;
+    }
+
+    public synchronized int freeRamFrames() {
+        return ram.freeFrames();
+    }
+
+    public synchronized boolean contains(String name) {
+        return processes.containsKey(name);
+    }
+
+    public synchronized boolean isResident(String name) {
+        SwappedProcess process = processes.get(name);
+        return process != null && process.isResident();
+    }
+
+    // Returns the time spent copying pages out, in nanoseconds.
+    public synchronized long swapOut(String name) {
+        return single(swapOut(Collections.singletonList(name)));
+    }
+
+    // Returns the time spent copying pages in, in nanoseconds.
+    public synchronized long swapIn(String name) {
+        return single(swapIn(Collections.singletonList(name)));
+    }
+
+    public synchronized List<SwapOutcome> swapOut(List<String> names) {
+        SwapOutcome[] outcomes = new SwapOutcome[names.size()];
+        List<SwappedProcess> batch = new ArrayList<>();
+        List<int[]> batchSlots = new ArrayList<>();
+        List<long[]> transfers = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            SwappedProcess process = processes.get(name);
+            if (process == null || !process.isResident() || !seen.add(name)) {
+                outcomes[i] = SwapOutcome.failed(name, "Process " + name + " not found in RAM");
+                continue;
+            }
+            int[] frames = process.getPages();
+            int[] slots = swap.allocate(frames.length);
+            if (slots == null) {
+                outcomes[i] = SwapOutcome.failed(name, "Not enough swap space for " + frames.length + " pages");
+                continue;
+            }
+            batch.add(process);
+            batchSlots.add(slots);
+            for (int page = 0; page < frames.length; page++) {
+                invalidate(slots[page]);
+                transfers.add(new long[]{slots[page], frames[page]});
+            }
+        }
+
+        long[] checksums = new long[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            checksums[i] = checksum(batch.get(i).getPages());
+        }
+
+        long startTime = System.nanoTime();
+        sortBySlot(transfers);
+        for (int from = 0; from < transfers.size(); ) {
+            int to = runEnd(transfers, from);
+            ByteBuffer[] pages = new ByteBuffer[to - from];
+            for (int i = from; i < to; i++) {
+                pages[i - from] = ram.frame((int) transfers.get(i)[1]);
+            }
+            swap.writeRun((int) transfers.get(from)[0], pages);
+            writeCalls++;
+            from = to;
+        }
+        if (syncWrites && !transfers.isEmpty()) {
+            swap.force();
+        }
+        long elapsed = System.nanoTime() - startTime;
+
+        int next = 0;
+        for (int i = 0; i < outcomes.length; i++) {
+            if (outcomes[i] != null) {
+                continue;
+            }
+            SwappedProcess process = batch.get(next);
+            for (int frame : process.getPages()) {
+                ram.free(frame);
+            }
+            int pageCount = process.getPageCount();
+            process.swappedOut(batchSlots.get(next), checksums[next]);
+            pagesOut += pageCount;
+            swapOuts++;
+            outcomes[i] = new SwapOutcome(process.getName(), true, "Swapped out " + pageCount + " pages",
+                    pageCount, elapsed / 1000);
+            next++;
+        }
+        if (!batch.isEmpty()) {
+            swapOutNanos += elapsed;
+            swapOutLatency.recordNanos(elapsed);
+        }
+        return toList(outcomes);
+    }
+
+    public synchronized List<SwapOutcome> swapIn(List<String> names) {
+        SwapOutcome[] outcomes = new SwapOutcome[names.size()];
+        List<SwappedProcess> batch = new ArrayList<>();
+        List<int[]> batchFrames = new ArrayList<>();
+        List<long[]> transfers = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        Set<Integer> batchSlots = new HashSet<>();
+
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            SwappedProcess process = processes.get(name);
+            if (process == null || process.isResident() || !seen.add(name)) {
+                outcomes[i] = SwapOutcome.failed(name, "Process " + name + " not found in swap space");
+                continue;
+            }
+            int[] slots = process.getPages();
+            int[] frames = ram.allocate(slots.length);
+            if (frames == null) {
+                outcomes[i] = SwapOutcome.failed(name, "Not enough free RAM frames for " + slots.length + " pages");
+                continue;
+            }
+            batch.add(process);
+            batchFrames.add(frames);
+            for (int page = 0; page < slots.length; page++) {
+                batchSlots.add(slots[page]);
+                transfers.add(new long[]{slots[page], frames[page]});
+            }
+        }
+
+        long startTime = System.nanoTime();
+        List<long[]> misses = new ArrayList<>();
+        for (long[] transfer : transfers) {
+            ByteBuffer cached = readAheadCache.remove((int) transfer[0]);
+            if (cached != null) {
+                ram.frame((int) transfer[1]).put(cached);
+                readAheadHits++;
+            } else {
+                misses.add(transfer);
+            }
+        }
+        sortBySlot(misses);
+        for (int from = 0; from < misses.size(); ) {
+            int to = runEnd(misses, from);
+            int firstSlot = (int) misses.get(from)[0];
+            int lastSlot = (int) misses.get(to - 1)[0];
+            int ahead = readAheadLength(lastSlot + 1, batchSlots);
+
+            ByteBuffer[] pages = new ByteBuffer[to - from + ahead];
+            for (int i = from; i < to; i++) {
+                pages[i - from] = ram.frame((int) misses.get(i)[1]);
+            }
+            for (int i = 0; i < ahead; i++) {
+                pages[to - from + i] = ByteBuffer.allocate(swap.pageSize());
+            }
+            swap.readRun(firstSlot, pages);
+            readCalls++;
+            for (int i = 0; i < ahead; i++) {
+                ByteBuffer page = pages[to - from + i];
+                page.flip();
+                readAheadCache.put(lastSlot + 1 + i, page);
+            }
+            readAheadPagesRead += ahead;
+            from = to;
+        }
+        long elapsed = System.nanoTime() - startTime;
+
+        int next = 0;
+        for (int i = 0; i < outcomes.length; i++) {
+            if (outcomes[i] != null) {
+                continue;
+            }
+            SwappedProcess process = batch.get(next);
+            int[] frames = batchFrames.get(next++);
+            if (checksum(frames) != process.getChecksum()) {
+                for (int frame : frames) {
+                    ram.free(frame);
+                }
+                outcomes[i] = SwapOutcome.failed(process.getName(), "Pages of " + process.getName() + " were corrupted in swap");
+                continue;
+            }
+            for (int slot : process.getPages()) {
+                invalidate(slot);
+                swap.free(slot);
+            }
+            process.swappedIn(frames);
+            pagesIn += frames.length;
+            swapIns++;
+            outcomes[i] = new SwapOutcome(process.getName(), true, "Swapped in " + frames.length + " pages",
+                    frames.length, elapsed / 1000);
+        }
+        if (!batch.isEmpty()) {
+            swapInNanos += elapsed;
+            swapInLatency.recordNanos(elapsed);
+        }
+        return toList(outcomes);
+    }
+
+    public synchronized List<String> residentProcesses() {
+        return names(true);
+    }
+
+    public synchronized List<String> swappedProcesses() {
+        return names(false);
+    }
+
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pageSize", ram.pageSize());
+        stats.put("ramFrames", ram.frameCount());
+        stats.put("freeRamFrames", ram.freeFrames());
+        stats.put("swapSlots", swap.slotCount());
+        stats.put("freeSwapSlots", swap.freeSlots());
+        stats.put("swapFile", swap.getPath().toString());
+        stats.put("syncWrites", syncWrites);
+        stats.put("swapOuts", swapOuts);
+        stats.put("swapIns", swapIns);
+        stats.put("pagesOut", pagesOut);
+        stats.put("pagesIn", pagesIn);
+        stats.put("writeCalls", writeCalls);
+        stats.put("readCalls", readCalls);
+        stats.put("readAheadPages", readAheadPagesRead);
+        stats.put("readAheadHits", readAheadHits);
+        stats.put("swapOutLatency", swapOutLatency.toMap());
+        stats.put("swapInLatency", swapInLatency.toMap());
+        stats.put("swapOutMBps", throughput(pagesOut, swapOutNanos));
+        stats.put("swapInMBps", throughput(pagesIn, swapInNanos));
+        return stats;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        swap.close();
+    }
+
+    // Allocated slots right after a run that are neither part of the batch nor cached already.
+    private int readAheadLength(int slot, Set<Integer> batchSlots) {
+        int length = 0;
+        while (length < readAheadPages && slot + length < swap.slotCount()
+                && swap.isAllocated(slot + length)
+                && !batchSlots.contains(slot + length)
+                && !readAheadCache.containsKey(slot + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private void invalidate(int slot) {
+        readAheadCache.remove(slot);
+    }
+
+    private List<String> names(boolean resident) {
+        List<String> names = new ArrayList<>();
+        for (SwappedProcess process : processes.values()) {
+            if (process.isResident() == resident) {
+                names.add(process.getName());
+            }
+        }
+        return names;
+    }
+
+    private long checksum(int[] frames) {
+        CRC32 crc = new CRC32();
+        for (int frame : frames) {
+            crc.update(ram.frame(frame));
+        }
+        return crc.getValue();
+    }
+
+    private double throughput(long pages, long nanos) {
+        return nanos > 0 ? (double) pages * ram.pageSize() / (1024 * 1024) / (nanos / 1e9) : 0;
+    }
+
+    private static long single(List<SwapOutcome> outcomes) {
+        SwapOutcome outcome = outcomes.get(0);
+        if (!outcome.isSuccess()) {
+            throw new IllegalStateException(outcome.getMessage());
+        }
+        return outcome.getIoMicros() * 1000;
+    }
+
+    private static void sortBySlot(List<long[]> transfers) {
+        transfers.sort((a, b) -> Long.compare(a[0], b[0]));
+    }
+
+    private static int runEnd(List<long[]> transfers, int from) {
+        int to = from + 1;
+        while (to < transfers.size() && transfers.get(to)[0] == transfers.get(to - 1)[0] + 1) {
+            to++;
+        }
+        return to;
+    }
+
+    private static List<SwapOutcome> toList(SwapOutcome[] outcomes) {
+        List<SwapOutcome> list = new ArrayList<>(outcomes.length);
+        Collections.addAll(list, outcomes);
+        return list;
+    }
+
+    private static void fill(ByteBuffer page, long seed) {
+        long value = seed;
+        while (page.remaining() >= 8) {
+            value = value * 6364136223846793005L + 1442695040888963407L;
+            page.putLong(value);
+        }
+        while (page.hasRemaining()) {
+            page.put((byte) value);
+        }
+    }
+}
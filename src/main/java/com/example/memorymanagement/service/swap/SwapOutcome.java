@@ -0,0 +1,42 @@
+package com.example.memorymanagement.service.swap;
+
+public class SwapOutcome {
+    private final String name;
+    private final boolean success;
+    private final String message;
+    private final int pages;
+    private final long ioMicros;
+
+    public SwapOutcome(String name, boolean success, String message, int pages, long ioMicros) {
+        this.name = name;
+        this.success = success;
+        this.message = message;
+        this.pages = pages;
+        this.ioMicros = ioMicros;
+    }
+
+    static SwapOutcome failed(String name, String message) {
+        return new SwapOutcome(name, false, message, 0, 0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public int getPages() {
+        return pages;
+    }
+
+    // I/O time of the whole batch the operation was part of.
+    public long getIoMicros() {
+        return ioMicros;
+    }
+}
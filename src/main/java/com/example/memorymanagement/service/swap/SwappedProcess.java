@@ -0,0 +1,46 @@
+package com.example.memorymanagement.service.swap;
+
+// Where a process's pages currently live: RAM frames while resident, swap slots otherwise.
+public class SwappedProcess {
+    private final String name;
+    private int[] pages;
+    private boolean resident;
+    private long checksum;
+
+    public SwappedProcess(String name, int[] frames) {
+        this.name = name;
+        this.pages = frames;
+        this.resident = true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPageCount() {
+        return pages.length;
+    }
+
+    public int[] getPages() {
+        return pages;
+    }
+
+    public boolean isResident() {
+        return resident;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+
+    void swappedOut(int[] slots, long checksum) {
+        this.pages = slots;
+        this.resident = false;
+        this.checksum = checksum;
+    }
+
+    void swappedIn(int[] frames) {
+        this.pages = frames;
+        this.resident = true;
+    }
+}
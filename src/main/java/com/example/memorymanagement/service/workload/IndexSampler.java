@@ -0,0 +1,73 @@
+package com.example.memorymanagement.service.workload;
+
+import java.util.Random;
+
+// Draws indexes in [0, n) with a given locality. n may change between draws (up to the maximum the
+// sampler was built for), so the same sampler serves a growing and shrinking list of live allocations.
+public class IndexSampler {
+    private final Locality locality;
+    private final Random random;
+    private final int phaseLength;
+    // Cumulative Zipf weights: cdf[i] is the sum of the weights of indexes 0..i.
+    private final double[] cdf;
+    private long draws;
+
+    public IndexSampler(Locality locality, int maxIndexes, double zipfExponent, int phaseLength, long seed) {
+        if (maxIndexes <= 0) {
+            throw new IllegalArgumentException("Sampler needs at least one index");
+        }
+        if (phaseLength <= 0) {
+            throw new IllegalArgumentException("Phase length must be positive");
+        }
+        this.locality = locality;
+        this.random = new Random(seed);
+        this.phaseLength = phaseLength;
+        if (locality == Locality.ZIPF || locality == Locality.PHASE_SHIFT) {
+            cdf = new double[maxIndexes];
+            double sum = 0;
+            for (int i = 0; i < maxIndexes; i++) {
+                sum += 1 / Math.pow(i + 1, zipfExponent);
+                cdf[i] = sum;
+            }
+        } else {
+            cdf = null;
+        }
+    }
+
+    public int next(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Nothing to sample from");
+        }
+        long draw = draws++;
+        switch (locality) {
+            case UNIFORM:
+                return random.nextInt(n);
+            case ZIPF:
+                return zipf(n);
+            case SCAN:
+                return (int) (draw % n);
+            default:
+                int window = Math.max(1, n / 10);
+                long phase = draw / phaseLength;
+                int base = (int) ((phase * window) % n);
+                return (base + zipf(window)) % n;
+        }
+    }
+
+    // Inverse-CDF draw restricted to the first n indexes.
+    private int zipf(int n) {
+        int limit = Math.min(n, cdf.length);
+        double target = random.nextDouble() * cdf[limit - 1];
+        int low = 0;
+        int high = limit - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cdf[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
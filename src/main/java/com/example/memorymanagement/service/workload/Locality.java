@@ -0,0 +1,30 @@
+package com.example.memorymanagement.service.workload;
+
+public enum Locality {
+    // Every index equally likely.
+    UNIFORM,
+    // Index i drawn with probability proportional to 1 / (i + 1)^s: a few hot indexes, a long cold tail.
+    ZIPF,
+    // Indexes in order, wrapping around.
+    SCAN,
+    // Zipf within a window of a tenth of the indexes that jumps to a new place every phase.
+    PHASE_SHIFT;
+
+    public static Locality from(String name) {
+        switch (name.toLowerCase()) {
+            case "uniform":
+                return UNIFORM;
+            case "zipf":
+            case "zipfian":
+                return ZIPF;
+            case "scan":
+            case "sequential":
+                return SCAN;
+            case "phase":
+            case "phase-shift":
+                return PHASE_SHIFT;
+            default:
+                throw new IllegalArgumentException("Unknown locality: " + name);
+        }
+    }
+}
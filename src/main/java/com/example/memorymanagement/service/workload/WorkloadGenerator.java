@@ -0,0 +1,118 @@
+package com.example.memorymanagement.service.workload;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Produces a stream of allocate/free/swap operations whose sizes, free targets and swapped processes
+// follow one locality model. Not thread-safe: each load-driver worker owns one generator and reports
+// the block of every successful allocation back, so frees always name a block it still holds.
+public class WorkloadGenerator {
+    public enum OperationType {
+        ALLOCATE, FREE, SWAP_OUT, SWAP_IN
+    }
+
+    public static final class Operation {
+        private final OperationType type;
+        private final int size;
+        private final int blockId;
+        private final String process;
+
+        private Operation(OperationType type, int size, int blockId, String process) {
+            this.type = type;
+            this.size = size;
+            this.blockId = blockId;
+            this.process = process;
+        }
+
+        public OperationType getType() {
+            return type;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getBlockId() {
+            return blockId;
+        }
+
+        public String getProcess() {
+            return process;
+        }
+    }
+
+    private static final int MAX_LIVE = 1 << 16;
+    private static final int PHASE_LENGTH = 1000;
+
+    private final Random random;
+    private final double allocateRatio;
+    private final double swapRatio;
+    private final int maxSize;
+    private final IndexSampler sizes;
+    private final IndexSampler victims;
+    private final IndexSampler swaps;
+    private final List<String> processes;
+    private final Set<String> swappedOut = new HashSet<>();
+    // Oldest first; victims are drawn newest first, so Zipf frees mostly young allocations.
+    private final List<Integer> live = new ArrayList<>();
+
+    public WorkloadGenerator(Locality locality, double allocateRatio, int maxSize, double swapRatio,
+                             List<String> processes, long seed) {
+        if (allocateRatio < 0 || allocateRatio > 1 || swapRatio < 0 || swapRatio > 1) {
+            throw new IllegalArgumentException("Ratios must be between 0 and 1");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Maximum allocation size must be positive");
+        }
+        this.random = new Random(seed);
+        this.allocateRatio = allocateRatio;
+        this.swapRatio = processes.isEmpty() ? 0 : swapRatio;
+        this.maxSize = maxSize;
+        this.sizes = new IndexSampler(locality, maxSize, 1.0, PHASE_LENGTH, random.nextLong());
+        this.victims = new IndexSampler(locality, MAX_LIVE, 1.0, PHASE_LENGTH, random.nextLong());
+        this.swaps = new IndexSampler(locality, Math.max(1, processes.size()), 1.0, PHASE_LENGTH, random.nextLong());
+        this.processes = new ArrayList<>(processes);
+    }
+
+    public Operation next() {
+        if (random.nextDouble() < swapRatio) {
+            String process = processes.get(swaps.next(processes.size()));
+            boolean out = !swappedOut.contains(process);
+            return new Operation(out ? OperationType.SWAP_OUT : OperationType.SWAP_IN, 0, -1, process);
+        }
+        if (live.isEmpty() || (live.size() < MAX_LIVE && random.nextDouble() < allocateRatio)) {
+            return new Operation(OperationType.ALLOCATE, 1 + sizes.next(maxSize), -1, null);
+        }
+        int index = live.size() - 1 - victims.next(live.size());
+        return new Operation(OperationType.FREE, 0, live.remove(index), null);
+    }
+
+    public void allocated(int blockId) {
+        live.add(blockId);
+    }
+
+    public void swapped(String process, boolean out) {
+        if (out) {
+            swappedOut.add(process);
+        } else {
+            swappedOut.remove(process);
+        }
+    }
+
+    public int liveAllocations() {
+        return live.size();
+    }
+
+    // A page reference trace over pages 0..pages-1.
+    public static int[] pageTrace(Locality locality, int length, int pages, long seed) {
+        IndexSampler sampler = new IndexSampler(locality, pages, 1.0, Math.max(1, length / 10), seed);
+        int[] trace = new int[length];
+        for (int i = 0; i < length; i++) {
+            trace[i] = sampler.next(pages);
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.memorymanagement.util;
+
+import java.util.Arrays;
+
+// Open-addressing int -> int map with linear probing; avoids boxing on hot paths.
+public class IntIntHashMap {
+    private static final int FREE_KEY = 0;
+
+    private final int missingValue;
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public IntIntHashMap(int expectedSize, int missingValue) {
+        this.missingValue = missingValue;
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int missingValue() {
+        return missingValue;
+    }
+
+    public boolean containsKey(int key) {
+        if (key == FREE_KEY) {
+            return hasZeroKey;
+        }
+        return keys[indexOf(key)] == key;
+    }
+
+    public int get(int key) {
+        if (key == FREE_KEY) {
+            return hasZeroKey ? zeroValue : missingValue;
+        }
+        int index = indexOf(key);
+        return keys[index] == key ? values[index] : missingValue;
+    }
+
+    // Returns the previous value, or the missing value if the key was absent.
+    public int put(int key, int value) {
+        if (key == FREE_KEY) {
+            int previous = hasZeroKey ? zeroValue : missingValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+        int index = indexOf(key);
+        if (keys[index] == key) {
+            int previous = values[index];
+            values[index] = value;
+            return previous;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > (mask + 1) * 3 / 4) {
+            rehash((mask + 1) * 2);
+        }
+        return missingValue;
+    }
+
+    public int remove(int key) {
+        if (key == FREE_KEY) {
+            if (!hasZeroKey) {
+                return missingValue;
+            }
+            hasZeroKey = false;
+            size--;
+            return zeroValue;
+        }
+        int index = indexOf(key);
+        if (keys[index] != key) {
+            return missingValue;
+        }
+        int previous = values[index];
+        size--;
+        // Backward-shift deletion keeps probe chains intact without tombstones.
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (keys[next] != FREE_KEY) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = FREE_KEY;
+        return previous;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE_KEY);
+        hasZeroKey = false;
+        size = 0;
+    }
+
+    public void forEach(IntIntConsumer consumer) {
+        if (hasZeroKey) {
+            consumer.accept(FREE_KEY, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    public interface IntIntConsumer {
+        void accept(int key, int value);
+    }
+
+    private int indexOf(int key) {
+        int index = mix(key) & mask;
+        while (keys[index] != FREE_KEY && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE_KEY) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
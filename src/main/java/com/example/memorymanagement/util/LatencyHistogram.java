@@ -0,0 +1,71 @@
+package com.example.memorymanagement.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Log2-bucketed histogram of microsecond latencies; bucket i counts values below 2^i µs. Safe for concurrent use.
+public class LatencyHistogram {
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    // Upper bound of the bucket holding the given percentile, in microseconds.
+    public long percentileMicros(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return 1L << i;
+            }
+        }
+        return 1L << (BUCKETS - 1);
+    }
+
+    public Map<String, Object> toMap() {
+        long total = count.get();
+        List<Map<String, Object>> counts = new ArrayList<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            long bucketCount = buckets.get(i);
+            if (bucketCount > 0) {
+                Map<String, Object> bucket = new HashMap<>();
+                bucket.put("belowMicros", 1L << i);
+                bucket.put("count", bucketCount);
+                counts.add(bucket);
+            }
+        }
+
+        Map<String, Object> histogram = new HashMap<>();
+        histogram.put("count", total);
+        histogram.put("meanMicros", total > 0 ? totalNanos.get() / total / 1000.0 : 0);
+        histogram.put("maxMicros", maxNanos.get() / 1000.0);
+        histogram.put("p50Micros", percentileMicros(50));
+        histogram.put("p99Micros", percentileMicros(99));
+        histogram.put("buckets", counts);
+        return histogram;
+    }
+}
@@ -1,8 +1,11 @@
 // Global variables
 let memoryBlocks = [];
+let memoryVersion = 0;
 let processes = [];
 let pageFrames = [];
 let isLoading = false;
+let stateStream = null;
+let streamConnected = false;
 
 // Initialize when page loads
 document.addEventListener('DOMContentLoaded', function () {
@@ -16,19 +19,22 @@ async function initializeSystem() {
         setLoading(true);
         logActivity('🔄 Loading data from backend...');
 
-        await Promise.all([
-            loadMemoryBlocks(),
-            loadProcesses(),
-            loadMemoryStats(),
-            updateSwapAndRamLists()
-        ]);
-
         generatePageFrames();
+        if (window.EventSource) {
+            // The first frame of the stream carries the full state
+            connectStateStream();
+        } else {
+            await Promise.all([
+                loadMemoryBlocks(),
+                loadProcesses(),
+                loadMemoryStats(),
+                updateSwapAndRamLists()
+            ]);
+            setInterval(loadMemoryStats, 30000);
+            setInterval(syncMemoryBlocks, 5000);
+        }
         logActivity('✅ System initialization complete');
 
-        // Auto-refresh every 30 seconds
-        setInterval(loadMemoryStats, 30000);
-
     } catch (error) {
         logActivity(`❌ Initialization failed: ${error.message}`);
     } finally {
@@ -36,6 +42,40 @@ async function initializeSystem() {
     }
 }
 
+// Server push: one coalesced frame per tick with changed blocks, stats and, when processes moved, the swap lists
+function connectStateStream() {
+    if (stateStream) {
+        stateStream.close();
+    }
+    stateStream = new EventSource('/api/stream');
+
+    stateStream.onopen = function () {
+        streamConnected = true;
+        logActivity('🟢 Backend connection: Streaming');
+    };
+
+    stateStream.addEventListener('state', function (event) {
+        const frame = JSON.parse(event.data);
+        applyBlockDelta(frame);
+        updateStats(frame.stats);
+        if (frame.ramProcesses) {
+            updateProcessLists(frame.ramProcesses, frame.swapProcesses);
+        }
+        if (frame.processes) {
+            processes = frame.processes;
+            updateProcessList();
+        }
+    });
+
+    // EventSource reconnects by itself; the new subscription starts with a full frame again
+    stateStream.onerror = function () {
+        if (streamConnected) {
+            logActivity('🔴 Backend connection: Stream lost, reconnecting...');
+        }
+        streamConnected = false;
+    };
+}
+
 // Loading state management
 function setLoading(loading) {
     isLoading = loading;
@@ -68,8 +108,7 @@ async function allocateMemory() {
 
         if (result.success) {
             logActivity(`✅ Memory allocated: ${size} blocks using ${algorithm} fit`);
-            memoryBlocks = result.memoryBlocks;
-            updateMemoryVisualization();
+            await applyMemoryChanges(result);
             updateStats(result.stats);
         } else {
             logActivity(`❌ Allocation failed: ${result.message}`);
@@ -85,7 +124,8 @@ async function allocateMemory() {
 async function deallocateMemory() {
     if (isLoading) return;
 
-    const allocatedBlocks = memoryBlocks.filter(block => !block.free);
+    // Only an allocation's first block frees it
+    const allocatedBlocks = memoryBlocks.filter(block => !block.free && block.allocationStart);
     if (!allocatedBlocks.length) {
         logActivity('⚠️ No allocated blocks to deallocate');
         return;
@@ -107,8 +147,7 @@ async function deallocateMemory() {
 
         if (result.success) {
             logActivity(`✅ Memory deallocated: Block ${randomBlock.id}`);
-            memoryBlocks = result.memoryBlocks;
-            updateMemoryVisualization();
+            await applyMemoryChanges(result);
             updateStats(result.stats);
         }
 
@@ -132,8 +171,7 @@ async function resetMemory() {
 
         if (result.success) {
             logActivity('🔄 Memory reset successfully');
-            memoryBlocks = result.memoryBlocks;
-            updateMemoryVisualization();
+            await applyMemoryChanges(result);
             updateStats(result.stats);
         }
 
@@ -150,6 +188,7 @@ async function createProcess() {
 
     const name = document.getElementById('processName').value.trim();
     const size = parseInt(document.getElementById('processSize').value);
+    const priority = parseInt(document.getElementById('processPriority').value) || 0;
 
     if (!name) {
         logActivity('⚠️ Please enter a process name');
@@ -161,7 +200,7 @@ async function createProcess() {
         const response = await fetch('/api/create-process', {
             method: 'POST',
             headers: {'Content-Type': 'application/x-www-form-urlencoded'},
-            body: `name=${encodeURIComponent(name)}&size=${size}`
+            body: `name=${encodeURIComponent(name)}&size=${size}&priority=${priority}`
         });
 
         if (!response.ok) throw new Error(`HTTP ${response.status}`);
@@ -172,8 +211,9 @@ async function createProcess() {
             logActivity(`✅ Process created: ${name} (Size: ${size})`);
             processes = result.processes;
             updateProcessList();
+            await applyMemoryChanges(result);
             document.getElementById('processName').value = '';
-            await updateSwapAndRamLists();
+            if (!streamConnected) await updateSwapAndRamLists();
         } else {
             logActivity(`❌ Process creation failed: ${result.message}`);
         }
@@ -207,7 +247,7 @@ async function swapOutProcess() {
         alert(message);
         logActivity(`⬇️ ${message}`);
 
-        await updateSwapAndRamLists();
+        if (!streamConnected) await updateSwapAndRamLists();
         document.getElementById("swapProcessId").value = '';
 
     } catch (error) {
@@ -240,7 +280,7 @@ async function swapInProcess() {
         alert(message);
         logActivity(`⬆️ ${message}`);
 
-        await updateSwapAndRamLists();
+        if (!streamConnected) await updateSwapAndRamLists();
         document.getElementById("swapProcessId").value = '';
 
     } catch (error) {
@@ -347,21 +387,21 @@ async function simulatePageReplacement() {
 }
 
 // Garbage Collection
-async function runGarbageCollection() {
+async function runGarbageCollection(mode = 'full') {
     if (isLoading) return;
 
     try {
         setLoading(true);
-        const response = await fetch('/api/garbage-collect', {method: 'POST'});
+        const response = await fetch(`/api/garbage-collect?mode=${mode}`, {method: 'POST'});
 
         if (!response.ok) throw new Error(`HTTP ${response.status}`);
 
         const result = await response.json();
 
         if (result.success) {
-            logActivity(`🗑️ Garbage collection: ${result.objectsCollected} objects collected`);
-            memoryBlocks = result.memoryBlocks;
-            updateMemoryVisualization();
+            logActivity(`🗑️ ${result.mode} GC: ${result.objectsCollected} objects collected, ` +
+                `${result.objectsVisited} visited, ${result.bytesReclaimed} bytes reclaimed in ${result.pauseMicros} µs`);
+            await applyMemoryChanges(result);
             updateStats(result.stats);
         }
 
@@ -372,14 +412,35 @@ async function runGarbageCollection() {
     }
 }
 
-// Data Loading Functions
-async function loadMemoryBlocks() {
+async function mutateHeap() {
+    if (isLoading) return;
+
     try {
-        const response = await fetch('/api/memory-blocks');
+        setLoading(true);
+        const response = await fetch('/api/gc/mutate?allocations=50', {method: 'POST'});
+
         if (!response.ok) throw new Error(`HTTP ${response.status}`);
 
-        memoryBlocks = await response.json();
-        updateMemoryVisualization();
+        const result = await response.json();
+
+        if (result.success) {
+            logActivity(`🧪 Mutator: ${result.objectsCreated} objects created, ${result.referencesDropped} references dropped`);
+            await applyMemoryChanges(result);
+            updateStats(result.stats);
+        }
+
+    } catch (error) {
+        logActivity(`❌ Mutator error: ${error.message}`);
+    } finally {
+        setLoading(false);
+    }
+}
+
+// Data Loading Functions
+async function loadMemoryBlocks() {
+    try {
+        memoryVersion = 0;
+        await syncMemoryBlocks();
         logActivity('📦 Memory blocks loaded');
 
     } catch (error) {
@@ -387,6 +448,38 @@ async function loadMemoryBlocks() {
     }
 }
 
+// Fetches only the blocks changed since our version; the server sends the whole map when we are too far behind
+async function syncMemoryBlocks() {
+    const response = await fetch(`/api/memory-blocks/changes?since=${memoryVersion}`);
+    if (!response.ok) throw new Error(`HTTP ${response.status}`);
+
+    applyBlockDelta(await response.json());
+}
+
+// Mutating calls return the changes made since they started; anything before that is fetched separately
+async function applyMemoryChanges(result) {
+    if (result.version === undefined) return;
+    if (result.full || result.fromVersion <= memoryVersion) {
+        applyBlockDelta(result);
+    } else {
+        await syncMemoryBlocks();
+    }
+}
+
+function applyBlockDelta(delta) {
+    if (delta.version <= memoryVersion && !delta.full) return;
+    if (delta.full) {
+        memoryBlocks = delta.memoryBlocks;
+        updateMemoryVisualization();
+    } else {
+        delta.changes.forEach(change => {
+            change.blocks.forEach((block, i) => memoryBlocks[change.start + i] = block);
+            updateMemoryBlockElements(change.start, change.blocks.length);
+        });
+    }
+    memoryVersion = delta.version;
+}
+
 async function loadProcesses() {
     try {
         const response = await fetch('/api/processes');
@@ -421,13 +514,24 @@ function updateMemoryVisualization() {
 
     memoryBlocks.forEach(block => {
         const blockElement = document.createElement('div');
-        blockElement.className = `memory-block ${block.free ? 'free' : 'allocated'}`;
-        blockElement.title = `Block ${block.id}: ${block.free ? 'Free' : 'Allocated'} (Size: ${block.size || 1})`;
-        blockElement.onclick = () => !block.free && deallocateSpecificBlock(block.id);
+        renderMemoryBlock(blockElement, block);
         container.appendChild(blockElement);
     });
 }
 
+function updateMemoryBlockElements(start, count) {
+    const elements = document.getElementById('memoryVisualization').children;
+    for (let i = start; i < start + count && i < elements.length; i++) {
+        renderMemoryBlock(elements[i], memoryBlocks[i]);
+    }
+}
+
+function renderMemoryBlock(blockElement, block) {
+    blockElement.className = `memory-block ${block.free ? 'free' : 'allocated'}`;
+    blockElement.title = `Block ${block.id}: ${block.free ? 'Free' : 'Allocated'} (Size: ${block.size || 1})`;
+    blockElement.onclick = () => !block.free && deallocateSpecificBlock(block.id);
+}
+
 function updateStats(stats) {
     const container = document.getElementById('statsGrid');
     container.innerHTML = `
@@ -509,8 +613,7 @@ async function deallocateSpecificBlock(blockId) {
 
         if (result.success) {
             logActivity(`✅ Block ${blockId} deallocated`);
-            memoryBlocks = result.memoryBlocks;
-            updateMemoryVisualization();
+            await applyMemoryChanges(result);
             updateStats(result.stats);
         }
 
@@ -573,30 +676,6 @@ document.getElementById('processName').addEventListener('keypress', function (ev
     }
 });
 
-// Connection health check
-async function checkBackendConnection() {
-    try {
-        const response = await fetch('/api/memory-stats', {
-            method: 'GET',
-            timeout: 5000
-        });
-
-        if (response.ok) {
-            logActivity('🟢 Backend connection: Healthy');
-            return true;
-        } else {
-            logActivity('🟡 Backend connection: Issues detected');
-            return false;
-        }
-    } catch (error) {
-        logActivity('🔴 Backend connection: Failed');
-        return false;
-    }
-}
-
-// Periodic health check
-setInterval(checkBackendConnection, 60000); // Check every minute
-
 // Error handling for network issues
 window.addEventListener('online', function () {
     logActivity('🌐 Network connection restored');
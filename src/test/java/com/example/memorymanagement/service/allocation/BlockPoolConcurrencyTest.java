@@ -0,0 +1,115 @@
+package com.example.memorymanagement.service.allocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Threads allocate and free through every algorithm at once and claim each block they are handed;
+// a block claimed twice means two live allocations overlap.
+class BlockPoolConcurrencyTest {
+    private static final int CAPACITY = 1 << 14;
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 20_000;
+    private static final String[] ALGORITHMS = {"first", "best", "worst", "buddy", "slab"};
+
+    @Test
+    void singleArenaNeverHandsOutABlockTwice() throws Exception {
+        stress(1);
+    }
+
+    @Test
+    void manyArenasNeverHandOutABlockTwice() throws Exception {
+        stress(THREADS);
+    }
+
+    private void stress(int arenas) throws Exception {
+        AllocationEngine engine = new AllocationEngine(CAPACITY, arenas);
+        AtomicIntegerArray claims = new AtomicIntegerArray(CAPACITY);
+        AtomicReference<String> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<AllocationHandle>>> workers = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int owner = t + 1;
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    return work(engine, claims, failure, owner);
+                }));
+            }
+            start.countDown();
+
+            List<AllocationHandle> live = new ArrayList<>();
+            for (Future<List<AllocationHandle>> worker : workers) {
+                live.addAll(worker.get(60, TimeUnit.SECONDS));
+            }
+            assertNull(failure.get(), failure.get());
+            assertEquals(engine.capacity(), engine.freeBlocks() + engine.allocatedBlocks());
+
+            int liveBlocks = 0;
+            for (AllocationHandle handle : live) {
+                liveBlocks += handle.getLength();
+            }
+            assertEquals(liveBlocks, engine.allocatedBlocks());
+            for (AllocationHandle handle : live) {
+                assertNotNull(engine.free(handle.getStart()));
+            }
+            assertEquals(0, engine.allocatedBlocks());
+            assertEquals(engine.capacity(), engine.freeBlocks() + engine.allocatedBlocks());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Returns the allocations still held when the thread finishes.
+    private static List<AllocationHandle> work(AllocationEngine engine, AtomicIntegerArray claims,
+                                               AtomicReference<String> failure, int owner) {
+        Random random = new Random(owner);
+        List<AllocationHandle> live = new ArrayList<>();
+        for (int i = 0; i < OPERATIONS && failure.get() == null; i++) {
+            if (live.isEmpty() || random.nextInt(5) < 3) {
+                String algorithm = ALGORITHMS[random.nextInt(ALGORITHMS.length)];
+                int start = engine.allocate(1 + random.nextInt(16), algorithm, owner);
+                if (start == -1) {
+                    continue;
+                }
+                AllocationHandle handle = engine.allocations().get(start);
+                if (handle == null || handle.getOwner() != owner) {
+                    failure.compareAndSet(null, "Allocation at " + start + " is not registered to owner " + owner);
+                    break;
+                }
+                for (int block = start; block < start + handle.getLength(); block++) {
+                    if (!claims.compareAndSet(block, 0, owner)) {
+                        failure.compareAndSet(null, algorithm + " handed out block " + block + " to owner " + owner
+                                + " while owner " + claims.get(block) + " held it");
+                    }
+                }
+                live.add(handle);
+            } else {
+                AllocationHandle handle = live.remove(random.nextInt(live.size()));
+                // Unclaimed before the free, since another thread may be handed the blocks right after it.
+                for (int block = handle.getStart(); block < handle.getStart() + handle.getLength(); block++) {
+                    claims.set(block, 0);
+                }
+                AllocationHandle freed = engine.free(handle.getStart());
+                if (freed == null || freed.getLength() != handle.getLength()) {
+                    failure.compareAndSet(null, "Free of " + handle.getStart() + " released " + freed);
+                }
+            }
+        }
+        return live;
+    }
+}
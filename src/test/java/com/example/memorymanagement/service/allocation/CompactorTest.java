@@ -0,0 +1,102 @@
+package com.example.memorymanagement.service.allocation;
+
+import com.example.memorymanagement.service.gc.ObjectGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Holes are punched into a pool of four-block allocations, one per owner, and a full cycle slides the
+// survivors down; the listener's moves must follow every allocation to its new start.
+class CompactorTest {
+    private static final int CAPACITY = 64;
+    private static final int LENGTH = 4;
+
+    @Test
+    void slidesSurvivorsDownAndReportsEveryMove() {
+        AllocationEngine engine = new AllocationEngine(CAPACITY, 1);
+        ObjectGraph graph = new ObjectGraph();
+        Map<Integer, Integer> startByOwner = new HashMap<>();
+        for (int owner = 1; owner <= CAPACITY / LENGTH; owner++) {
+            int start = engine.allocate(LENGTH, "first", owner);
+            graph.add(start, LENGTH, true);
+            startByOwner.put(owner, start);
+        }
+        for (int owner = 1; owner <= CAPACITY / LENGTH; owner += 2) {
+            int start = startByOwner.remove(owner);
+            assertNotNull(engine.free(start));
+            graph.remove(start);
+        }
+        graph.addReference(startByOwner.get(2), startByOwner.get(4));
+        int allocated = engine.allocatedBlocks();
+        int free = engine.freeBlocks();
+
+        Map<Integer, Integer> moves = new HashMap<>();
+        engine.compactor().setRelocationListener((from, to) -> {
+            moves.put(from, to);
+            graph.relocate(from, to);
+        });
+        runCycle(engine.compactor());
+
+        assertEquals(allocated, engine.allocatedBlocks());
+        assertEquals(free, engine.freeBlocks());
+        assertEquals(free, engine.largestHole());
+        assertEquals(startByOwner.size(), engine.allocations().size());
+        assertEquals(startByOwner.size(), graph.objectCount());
+        for (Map.Entry<Integer, Integer> entry : startByOwner.entrySet()) {
+            int from = entry.getValue();
+            int to = moves.getOrDefault(from, from);
+            AllocationHandle handle = engine.allocations().get(to);
+            assertNotNull(handle, "No allocation at " + to + " for owner " + entry.getKey());
+            assertEquals(entry.getKey().intValue(), handle.getOwner());
+            assertEquals(LENGTH, handle.getLength());
+            assertTrue(to < allocated, "Allocation of owner " + entry.getKey() + " left at " + to);
+            assertTrue(graph.contains(to), "Heap object did not follow " + from + " to " + to);
+        }
+        for (int from : moves.keySet()) {
+            assertTrue(moves.containsValue(from) || !graph.contains(from), "Heap object still recorded at " + from);
+        }
+        assertTrue(graph.removeReference(moves.get(startByOwner.get(2)), moves.get(startByOwner.get(4))));
+    }
+
+    @Test
+    void pinnedAllocationsStayPut() {
+        AllocationEngine engine = new AllocationEngine(CAPACITY, 1);
+        int hole = engine.allocate(LENGTH, "first", 1);
+        int pending = engine.allocatePinned(LENGTH, "first", 2);
+        int gap = engine.allocate(LENGTH, "first", 3);
+        int pinned = engine.allocatePinned(LENGTH, "first", 4);
+        int gap2 = engine.allocate(LENGTH, "first", 5);
+        int movable = engine.allocate(LENGTH, "first", 6);
+        assertTrue(engine.allocations().transition(pinned, PinState.PENDING, PinState.PINNED));
+        engine.free(hole);
+        engine.free(gap);
+        engine.free(gap2);
+
+        Map<Integer, Integer> moves = new HashMap<>();
+        engine.compactor().setRelocationListener(moves::put);
+        runCycle(engine.compactor());
+
+        assertEquals(PinState.PENDING, engine.allocations().get(pending).getPinState());
+        assertEquals(PinState.PINNED, engine.allocations().get(pinned).getPinState());
+        assertFalse(moves.containsKey(pending));
+        assertFalse(moves.containsKey(pinned));
+        // Holes in front of pinned allocations stay; the movable one only fills the hole right before it.
+        assertEquals(1, moves.size());
+        assertEquals(Integer.valueOf(gap2), moves.get(movable));
+        assertEquals(6, engine.allocations().get(gap2).getOwner());
+        assertEquals(3 * LENGTH, engine.allocatedBlocks());
+    }
+
+    private static void runCycle(Compactor compactor) {
+        long cycles = compactor.cycles();
+        while (compactor.cycles() == cycles) {
+            compactor.step(CAPACITY, Long.MAX_VALUE / 2);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.memorymanagement.service.allocation;
+
+import com.example.memorymanagement.model.MemoryBlock;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Decodes the binary memory map independently of the encoder and compares every block with the
+// per-block snapshot the JSON endpoints serve.
+class MemoryMapEncoderTest {
+    private static final int CAPACITY = 256;
+
+    @Test
+    void decodesToTheBlockSnapshot() {
+        AllocationEngine engine = new AllocationEngine(CAPACITY, 1);
+        int unowned = engine.allocate(5, "first", AllocationTable.NO_OWNER);
+        engine.allocate(3, "first", 7);
+        int freed = engine.allocate(4, "first", 7);
+        engine.allocate(6, "best", 200);
+        engine.allocate(9, "buddy", 7);
+        engine.allocate(2, "worst", 200);
+        engine.free(freed);
+        assertTrue(unowned >= 0);
+
+        byte[] encoded = MemoryMapEncoder.encode(engine, 300);
+        ByteArrayInputStream in = new ByteArrayInputStream(encoded);
+        assertEquals('M', in.read());
+        assertEquals('M', in.read());
+        assertEquals('A', in.read());
+        assertEquals('P', in.read());
+        assertEquals(MemoryMapEncoder.FORMAT, in.read());
+        assertEquals(CAPACITY, readVarint(in));
+        assertEquals(300L, readVarint(in));
+        int[] owners = new int[(int) readVarint(in)];
+        assertEquals(2, owners.length);
+        for (int i = 0; i < owners.length; i++) {
+            long zigzag = readVarint(in);
+            owners[i] = (int) (zigzag >>> 1) ^ -(int) (zigzag & 1);
+        }
+
+        List<MemoryBlock> blocks = engine.snapshotBlocks();
+        int block = 0;
+        while (block < CAPACITY) {
+            int length = (int) readVarint(in);
+            int state = (int) readVarint(in);
+            assertTrue(length > 0 && block + length <= CAPACITY, "Bad extent length " + length + " at " + block);
+            for (int end = block + length; block < end; block++) {
+                MemoryBlock expected = blocks.get(block);
+                assertEquals(expected.isFree(), state == 0, "Free flag of block " + block);
+                String owner = state >= 2 ? String.valueOf(owners[state - 2]) : null;
+                assertEquals(expected.getProcessId(), owner, "Owner of block " + block);
+            }
+        }
+        assertEquals(-1, in.read());
+    }
+
+    private static long readVarint(ByteArrayInputStream in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.read();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
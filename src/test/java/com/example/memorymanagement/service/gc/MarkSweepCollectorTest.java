@@ -0,0 +1,83 @@
+package com.example.memorymanagement.service.gc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Small hand-built graphs of two-block objects; the free predicate records which starts a collection
+// releases, so reachability can be checked object by object.
+class MarkSweepCollectorTest {
+    private static final int HEAP_BLOCKS = 64;
+    private static final int LENGTH = 2;
+
+    private final ObjectGraph graph = new ObjectGraph();
+    private final MarkSweepCollector collector = new MarkSweepCollector(HEAP_BLOCKS);
+    private final Set<Integer> freed = new HashSet<>();
+    private final IntPredicate free = start -> freed.add(start);
+
+    @Test
+    void fullCollectionFreesOnlyUnreachableObjects() {
+        int root = add(0, true);
+        int a = add(2, false);
+        int b = add(4, false);
+        int c = add(6, false);
+        int d = add(8, false);
+        graph.addReference(root, a);
+        graph.addReference(a, b);
+        // An unreachable cycle must not keep itself alive.
+        graph.addReference(c, d);
+        graph.addReference(d, c);
+
+        CollectionResult result = collector.collect(graph, GcMode.FULL, 3, free);
+
+        assertEquals(new HashSet<>(Arrays.asList(c, d)), freed);
+        assertEquals(2, result.getObjectsReclaimed());
+        assertEquals(2L * LENGTH, result.getBlocksReclaimed());
+        assertEquals(3, result.getObjectsVisited());
+        assertEquals(3, graph.objectCount());
+        assertTrue(graph.contains(root) && graph.contains(a) && graph.contains(b));
+        assertFalse(graph.contains(c) || graph.contains(d));
+    }
+
+    @Test
+    void youngCollectionKeepsObjectsReachableFromTheRememberedSet() {
+        int old = add(0, true);
+        CollectionResult promotion = collector.collect(graph, GcMode.YOUNG, 1, free);
+        assertEquals(1, promotion.getPromoted());
+        assertEquals(1, graph.oldCount());
+
+        int young = add(2, false);
+        int garbage = add(4, false);
+        graph.addReference(old, young);
+        assertEquals(1, graph.rememberedSetSize());
+        // Only the remembered set still reaches the young object now.
+        graph.setRoot(old, false);
+
+        CollectionResult minor = collector.collect(graph, GcMode.YOUNG, 1, free);
+        assertEquals(new HashSet<>(Arrays.asList(garbage)), freed);
+        assertEquals(1, minor.getObjectsReclaimed());
+        assertEquals(1, minor.getPromoted());
+        // A young collection never sweeps the old generation, reachable or not.
+        assertTrue(graph.contains(old));
+        assertTrue(graph.contains(young));
+        assertEquals(0, graph.rememberedSetSize());
+
+        freed.clear();
+        CollectionResult full = collector.collect(graph, GcMode.FULL, 1, free);
+        assertEquals(new HashSet<>(Arrays.asList(old, young)), freed);
+        assertEquals(2, full.getObjectsReclaimed());
+        assertEquals(0, graph.objectCount());
+    }
+
+    private int add(int start, boolean root) {
+        graph.add(start, LENGTH, root);
+        return start;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.memorymanagement.service.paging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The one-pass curve must give, for every frame count, exactly the hit ratio of simulating LRU with
+// that many frames.
+class MissRatioCurveTest {
+    private static final int PAGES = 50;
+    private static final int REFERENCES = 2000;
+
+    @Test
+    void matchesBruteForceLru() {
+        Random random = new Random(42);
+        int[] trace = new int[REFERENCES];
+        for (int i = 0; i < REFERENCES; i++) {
+            // A skewed trace, so hits build up gradually across frame counts.
+            trace[i] = random.nextInt(1 + random.nextInt(PAGES));
+        }
+        MissRatioCurve curve = new MissRatioCurve(1.0);
+        for (int page : trace) {
+            curve.accept(page);
+        }
+
+        int maxFrames = PAGES + 10;
+        double[] ratios = curve.hitRatios(maxFrames);
+        assertEquals(maxFrames, ratios.length);
+        for (int frames = 1; frames <= maxFrames; frames++) {
+            assertEquals(lruHitRatio(trace, frames), ratios[frames - 1], 1e-9, "Hit ratio with " + frames + " frames");
+        }
+        assertEquals(REFERENCES, curve.getReferences());
+    }
+
+    private static double lruHitRatio(int[] trace, int frames) {
+        LinkedHashMap<Integer, Boolean> resident = new LinkedHashMap<>(16, 0.75f, true);
+        int hits = 0;
+        for (int page : trace) {
+            if (resident.get(page) != null) {
+                hits++;
+                continue;
+            }
+            if (resident.size() == frames) {
+                Iterator<Integer> eldest = resident.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+            resident.put(page, Boolean.TRUE);
+        }
+        return (double) hits / trace.length * 100;
+    }
+}